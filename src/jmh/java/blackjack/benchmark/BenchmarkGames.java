@@ -0,0 +1,45 @@
+package blackjack.benchmark;
+
+import blackjack.config.ShoeProperties;
+import blackjack.model.CardPile;
+import blackjack.model.Game;
+import blackjack.model.Player;
+import blackjack.model.Shoe;
+import blackjack.model.enums.GameStatus;
+import blackjack.model.enums.Participant;
+import blackjack.service.ShoeService;
+
+/**
+ * Games dealt the way GameService.createGame deals them, without Spring or a datastore.
+ */
+final class BenchmarkGames {
+
+    static final Player PLAYER = Player.builder().id(1).name("benchmark").totalPoints(42).build();
+
+    private BenchmarkGames() {
+    }
+
+    // A shoe service with an empty pool shuffles every shoe inline on the caller's thread
+    static ShoeService inlineShoes(int decks) {
+        ShoeProperties properties = new ShoeProperties();
+        properties.setDecks(decks);
+        properties.setPoolSize(0);
+        return new ShoeService(properties);
+    }
+
+    static Game deal(ShoeService shoes) {
+        Shoe deck = shoes.nextShoe();
+        CardPile playerCards = CardPile.of(deck.draw(), deck.draw());
+        CardPile dealerCards = CardPile.of(deck.draw());
+        return Game.builder()
+                .id("65f0c0ffee0000000000beef")
+                .playerId(PLAYER.getId())
+                .winner(Participant.NONE)
+                .gameStatus(GameStatus.ACTIVE)
+                .playerCards(playerCards)
+                .dealerCards(dealerCards)
+                .hiddenCard(deck.draw())
+                .deck(deck)
+                .build();
+    }
+}
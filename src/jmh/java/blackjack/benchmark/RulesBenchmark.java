@@ -0,0 +1,58 @@
+package blackjack.benchmark;
+
+import blackjack.model.CardPile;
+import blackjack.model.Game;
+import blackjack.model.Shoe;
+import blackjack.rules.BlackjackRules;
+import blackjack.service.ShoeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RulesBenchmark {
+
+    @Param({"1", "8"})
+    private int decks;
+
+    private ShoeService shoes;
+    private CardPile hand;
+
+    @Setup
+    public void setUp() {
+        shoes = BenchmarkGames.inlineShoes(decks);
+        Game game = BenchmarkGames.deal(shoes);
+        hand = game.getPlayerCards();
+        hand.add(game.getDeck().draw());
+    }
+
+    @Benchmark
+    public int handScore() {
+        return BlackjackRules.handScore(hand);
+    }
+
+    @Benchmark
+    public Shoe shuffleShoe() {
+        return shoes.nextShoe();
+    }
+
+    @Benchmark
+    public Game dealGame() {
+        return BenchmarkGames.deal(shoes);
+    }
+}
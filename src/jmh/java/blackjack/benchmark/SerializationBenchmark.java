@@ -0,0 +1,89 @@
+package blackjack.benchmark;
+
+import blackjack.model.Game;
+import blackjack.model.dto.GameDTO;
+import blackjack.model.dto.mapDTO;
+import blackjack.repository.converter.CardConverters;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What every game request pays after the rules: entity to DTO mapping, JSON for the
+ * response and BSON for the Mongo write, with the same converters as the application.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MappingMongoConverter mongoConverter;
+    private Game game;
+    private GameDTO gameDTO;
+    private RawBsonDocument encodedGame;
+
+    @Setup
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(CardConverters.all());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        mongoConverter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        mongoConverter.setCustomConversions(conversions);
+        mongoConverter.afterPropertiesSet();
+
+        game = BenchmarkGames.deal(BenchmarkGames.inlineShoes(1));
+        gameDTO = mapDTO.toGameDTO(game, BenchmarkGames.PLAYER);
+        encodedGame = encode(game);
+    }
+
+    @Benchmark
+    public GameDTO toGameDTO() {
+        return mapDTO.toGameDTO(game, BenchmarkGames.PLAYER);
+    }
+
+    @Benchmark
+    public byte[] jacksonGameDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(gameDTO);
+    }
+
+    @Benchmark
+    public RawBsonDocument bsonEncodeGame() {
+        return encode(game);
+    }
+
+    @Benchmark
+    public Game bsonDecodeGame() {
+        return mongoConverter.read(Game.class, encodedGame.decode(documentCodec));
+    }
+
+    private RawBsonDocument encode(Game game) {
+        Document document = new Document();
+        mongoConverter.write(game, document);
+        return new RawBsonDocument(document, documentCodec);
+    }
+}
@@ -0,0 +1,60 @@
+package blackjack.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and error count of one endpoint, recorded from any thread.
+ */
+final class EndpointStats {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+    private final LongAdder errors = new LongAdder();
+    // Failed requests by HTTP status, or by exception class when no response came back
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    void recordSuccess(long nanos) {
+        latencies.recordValue(Math.min(nanos, MAX_LATENCY_NANOS));
+    }
+
+    void recordFailure(long nanos, String cause) {
+        latencies.recordValue(Math.min(nanos, MAX_LATENCY_NANOS));
+        errors.increment();
+        failures.computeIfAbsent(cause, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Counts, throughput over the measured run and latency percentiles in milliseconds.
+     */
+    Map<String, Object> summary(long elapsedNanos) {
+        long requests = latencies.getTotalCount();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", requests);
+        summary.put("errors", errors.sum());
+        summary.put("errorRate", requests == 0 ? 0.0 : (double) errors.sum() / requests);
+        summary.put("throughput", requests / (elapsedNanos / 1e9));
+        summary.put("p50", millis(latencies.getValueAtPercentile(50)));
+        summary.put("p99", millis(latencies.getValueAtPercentile(99)));
+        summary.put("p999", millis(latencies.getValueAtPercentile(99.9)));
+        summary.put("max", millis(latencies.getMaxValue()));
+        if (!failures.isEmpty()) {
+            Map<String, Long> causes = new TreeMap<>();
+            failures.forEach((cause, count) -> causes.put(cause, count.sum()));
+            summary.put("failures", causes);
+        }
+        return summary;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
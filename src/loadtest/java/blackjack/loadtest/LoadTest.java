@@ -0,0 +1,261 @@
+package blackjack.loadtest;
+
+import blackjack.BlackjackApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Boots the application on a random port with the in-process storage engine (the
+ * {@code memory} profile) in place of Mongo and MySQL, then runs virtual players
+ * concurrently through the whole flow: create player, new game, HITs, STAND, result
+ * and ranking. The per-endpoint report is
+ * compared with a stored baseline and the run fails when throughput drops or p99
+ * latency grows by more than the allowed percentage.
+ * <p>
+ * Settings are system properties, see {@link Settings}. Run with
+ * {@code mvn -Pload-test verify}, pass overrides through {@code -Dloadtest.args="-Dloadtest.players=5000"}.
+ */
+public final class LoadTest {
+
+    private static final Path DATA_DIRECTORY = Path.of("target/loadtest-data");
+
+    private static final String CREATE_PLAYER = "POST /players/new";
+    private static final String NEW_GAME = "POST /games/new";
+    private static final String MOVE = "POST /games/{id}/move";
+    private static final String RESULT = "GET /games/{id}/result";
+    private static final String RANKING = "GET /players/ranking";
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Settings settings;
+    private final WebClient webClient;
+    private Map<String, EndpointStats> stats;
+
+    private LoadTest(Settings settings, int port) {
+        this.settings = settings;
+        ConnectionProvider connections = ConnectionProvider.builder("load-test")
+                .maxConnections(settings.connections())
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(Duration.ofMinutes(1))
+                .build();
+        this.webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .build();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Settings settings = Settings.fromSystemProperties();
+        // Devtools would restart the context in another thread and turn on web request logging
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // Command line arguments take precedence over application.yml
+        String[] overrides = {
+                "--server.port=0",
+                "--spring.profiles.active=memory",
+                "--blackjack.storage.memory.directory=" + DATA_DIRECTORY,
+                // Virtual players run closed loops as fast as the server answers, which admission
+                // control would shed, while this run measures the capacity behind it
+                "--blackjack.admission.rate-limit.enabled=false",
+                "--blackjack.admission.concurrency.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.web=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.springframework.r2dbc=WARN",
+                "--logging.level.org.springframework.data.mongodb=WARN"
+        };
+        String[] arguments = Arrays.copyOf(overrides, overrides.length + args.length);
+        System.arraycopy(args, 0, arguments, overrides.length, args.length);
+        // Every run starts from empty storage
+        FileSystemUtils.deleteRecursively(DATA_DIRECTORY);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BlackjackApplication.class)
+                .run(arguments);
+        boolean passed;
+        try {
+            int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+            passed = new LoadTest(settings, port).run();
+        } finally {
+            context.close();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run() throws IOException {
+        System.out.printf("Warming up with %d virtual players%n", settings.warmUpPlayers());
+        runPlayers("warm-up", settings.warmUpPlayers());
+
+        System.out.printf("Running %d virtual players, %d games each%n", settings.players(), settings.rounds());
+        long elapsed = runPlayers("vp", settings.players());
+
+        Map<String, Map<String, Object>> report = new LinkedHashMap<>();
+        stats.forEach((endpoint, endpointStats) -> report.put(endpoint, endpointStats.summary(elapsed)));
+        Files.createDirectories(settings.report().toAbsolutePath().getParent());
+        JSON.writeValue(settings.report().toFile(), report);
+        System.out.println(JSON.writeValueAsString(report));
+
+        List<String> failures = new ArrayList<>();
+        report.forEach((endpoint, summary) -> {
+            if (((Number) summary.get("errorRate")).doubleValue() > settings.maxErrorRate()) {
+                failures.add(endpoint + " error rate " + summary.get("errorRate"));
+            }
+        });
+        if (!Files.exists(settings.baseline()) || settings.updateBaseline()) {
+            Files.createDirectories(settings.baseline().toAbsolutePath().getParent());
+            JSON.writeValue(settings.baseline().toFile(), report);
+            System.out.println("Baseline written to " + settings.baseline());
+        } else {
+            failures.addAll(regressions(JSON.readTree(settings.baseline().toFile()), report));
+        }
+        failures.forEach(failure -> System.err.println("Load test failed: " + failure));
+        return failures.isEmpty();
+    }
+
+    private List<String> regressions(JsonNode baseline, Map<String, Map<String, Object>> report) {
+        double allowed = settings.maxRegressionPercent() / 100;
+        List<String> regressions = new ArrayList<>();
+        baseline.fields().forEachRemaining(entry -> {
+            Map<String, Object> current = report.get(entry.getKey());
+            if (current == null) {
+                regressions.add(entry.getKey() + " was not exercised");
+                return;
+            }
+            double baseThroughput = entry.getValue().path("throughput").asDouble();
+            double throughput = ((Number) current.get("throughput")).doubleValue();
+            if (throughput < baseThroughput * (1 - allowed)) {
+                regressions.add(String.format("%s throughput %.1f/s, baseline %.1f/s", entry.getKey(), throughput, baseThroughput));
+            }
+            double baseP99 = entry.getValue().path("p99").asDouble();
+            double p99 = ((Number) current.get("p99")).doubleValue();
+            if (p99 > baseP99 * (1 + allowed)) {
+                regressions.add(String.format("%s p99 %.2f ms, baseline %.2f ms", entry.getKey(), p99, baseP99));
+            }
+        });
+        return regressions;
+    }
+
+    // Runs every virtual player concurrently with fresh statistics, returns the wall time
+    private long runPlayers(String prefix, int players) {
+        stats = new LinkedHashMap<>();
+        for (String endpoint : List.of(CREATE_PLAYER, NEW_GAME, MOVE, RESULT, RANKING)) {
+            stats.put(endpoint, new EndpointStats());
+        }
+        SplittableRandom seeds = new SplittableRandom(settings.seed());
+        List<SplittableRandom> randoms = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            randoms.add(seeds.split());
+        }
+        long start = System.nanoTime();
+        Flux.range(0, players)
+                .flatMap(player -> virtualPlayer(prefix + "-" + player, randoms.get(player)), Math.max(players, 1))
+                .blockLast();
+        return System.nanoTime() - start;
+    }
+
+    private Mono<Void> virtualPlayer(String name, SplittableRandom random) {
+        return call(CREATE_PLAYER, webClient.post().uri("/players/new")
+                        .contentType(MediaType.TEXT_PLAIN).bodyValue(name))
+                .thenMany(Flux.range(0, settings.rounds())
+                        .concatMap(round -> game(name, random)))
+                .then();
+    }
+
+    // Every game is started by the name of the player created first
+    private Mono<Void> game(String playerName, SplittableRandom random) {
+        int hits = random.nextInt(settings.maxHits() + 1);
+        return call(NEW_GAME, webClient.post().uri("/games/new")
+                        .contentType(MediaType.TEXT_PLAIN).bodyValue(playerName))
+                .flatMap(game -> hits(game, hits))
+                .flatMap(game -> isActive(game) ? move(game, "STAND") : Mono.just(game))
+                .flatMap(game -> call(RESULT, webClient.get().uri("/games/{id}/result", game.path("id").asText())))
+                .then(call(RANKING, webClient.get().uri("/players/ranking?limit={limit}", settings.rankingPage())))
+                .then();
+    }
+
+    private Mono<JsonNode> hits(JsonNode game, int remaining) {
+        if (remaining == 0 || !isActive(game)) {
+            return Mono.just(game);
+        }
+        return move(game, "HIT").flatMap(next -> hits(next, remaining - 1));
+    }
+
+    private Mono<JsonNode> move(JsonNode game, String move) {
+        return call(MOVE, webClient.post().uri("/games/{id}/move", game.path("id").asText())
+                .contentType(MediaType.TEXT_PLAIN).bodyValue(move));
+    }
+
+    private static boolean isActive(JsonNode game) {
+        return "ACTIVE".equals(game.path("gameStatus").asText());
+    }
+
+    // Times one exchange including its body, completes empty when the request failed
+    private Mono<JsonNode> call(String endpoint, WebClient.RequestHeadersSpec<?> request) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return request.exchangeToMono(response -> response.toEntity(JsonNode.class))
+                    .doOnNext(response -> {
+                        long nanos = System.nanoTime() - start;
+                        if (response.getStatusCode().is2xxSuccessful()) {
+                            endpointStats.recordSuccess(nanos);
+                        } else {
+                            endpointStats.recordFailure(nanos, Integer.toString(response.getStatusCode().value()));
+                        }
+                    })
+                    .filter(response -> response.getStatusCode().is2xxSuccessful())
+                    .mapNotNull(ResponseEntity::getBody)
+                    .onErrorResume(error -> {
+                        endpointStats.recordFailure(System.nanoTime() - start, error.getClass().getSimpleName());
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    private record Settings(int players, int warmUpPlayers, int rounds, int maxHits, int rankingPage,
+                            int connections, long seed, double maxRegressionPercent, double maxErrorRate,
+                            Path baseline, Path report, boolean updateBaseline) {
+
+        static Settings fromSystemProperties() {
+            Function<String, String> property = name -> System.getProperty("loadtest." + name);
+            return new Settings(
+                    Integer.getInteger("loadtest.players", 2000),
+                    Integer.getInteger("loadtest.warmUpPlayers", 500),
+                    Integer.getInteger("loadtest.rounds", 5),
+                    Integer.getInteger("loadtest.maxHits", 2),
+                    Integer.getInteger("loadtest.rankingPage", 10),
+                    Integer.getInteger("loadtest.connections", 500),
+                    Long.getLong("loadtest.seed", 42),
+                    Double.parseDouble(orDefault(property.apply("maxRegressionPercent"), "20")),
+                    Double.parseDouble(orDefault(property.apply("maxErrorRate"), "0")),
+                    Path.of(orDefault(property.apply("baseline"), "src/loadtest/baseline.json")),
+                    Path.of(orDefault(property.apply("report"), "target/loadtest-report.json")),
+                    Boolean.getBoolean("loadtest.updateBaseline"));
+        }
+
+        private static String orDefault(String value, String defaultValue) {
+            return value != null ? value : defaultValue;
+        }
+    }
+}
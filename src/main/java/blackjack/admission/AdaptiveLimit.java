@@ -0,0 +1,85 @@
+package blackjack.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A limit on requests in flight that follows their latency, after the gradient algorithm.
+ * A short and a long moving average of latency are kept: while the short one stays within
+ * a tolerance of the long one the limit grows by about its square root, and when requests
+ * queue up and the short one rises past it the limit shrinks by their ratio. Samples taken
+ * well below the limit say nothing about it and only feed the averages.
+ */
+final class AdaptiveLimit {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 500;
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double shortLatency;
+    private double longLatency;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends a request that completed in {@code latencyNanos}.
+     */
+    void release(long latencyNanos) {
+        update(latencyNanos, inFlight.getAndDecrement());
+    }
+
+    /**
+     * Ends a request that failed or was cancelled, its latency is not a sample.
+     */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long latency, int inFlight) {
+        shortLatency = shortLatency == 0 ? latency : shortLatency + (latency - shortLatency) / SHORT_WINDOW;
+        longLatency = longLatency == 0 ? latency : longLatency + (latency - longLatency) / LONG_WINDOW;
+        // After load drops the long average is far above the short one, it catches up faster
+        if (longLatency > 2 * shortLatency) {
+            longLatency *= 0.95;
+        }
+        if (inFlight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longLatency / shortLatency));
+        double next = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - SMOOTHING) + next * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+}
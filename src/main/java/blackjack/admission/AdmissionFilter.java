@@ -0,0 +1,170 @@
+package blackjack.admission;
+
+import blackjack.config.AdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Admission control in front of the API. Each client is rate limited by a token bucket of
+ * its own, so a flooding client is turned away without taking from the others, and each
+ * backend has an adaptive limit on requests in flight, so work beyond what the backend
+ * serves at a steady latency is shed instead of queued. A request over either limit is
+ * answered at once with 429 and a Retry-After header, before it reaches a handler.
+ * <p>
+ * Event streams are rate limited when opened but held outside the concurrency limit,
+ * since they stay open for as long as the client watches. Only the event stream routes
+ * are, whatever a request to another path accepts. Other streamed responses, such as a
+ * long NDJSON autoplay, count against the limit but their duration is no latency sample,
+ * so they cannot shrink the limit of the short requests on their backend.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AdmissionFilter implements WebFilter {
+
+    private static final int MAX_CLIENT_LENGTH = 128;
+
+    private final AdmissionProperties properties;
+    private final TokenBuckets buckets;
+    private final Set<String> trustedProxies;
+    private final List<Backend> backends = new ArrayList<>();
+    private final List<PathPattern> eventStreams;
+    private final Counter rateLimited;
+
+    private record Backend(String name, List<PathPattern> paths, AdaptiveLimit limit, Counter shed) {
+    }
+
+    public AdmissionFilter(AdmissionProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        AdmissionProperties.RateLimit rateLimit = properties.getRateLimit();
+        this.buckets = new TokenBuckets(rateLimit.getRequestsPerSecond(), rateLimit.getBurst(),
+                rateLimit.getMaxClients(), rateLimit.getIdleTimeout());
+        this.trustedProxies = Set.copyOf(rateLimit.getTrustedProxies());
+        this.eventStreams = properties.getEventStreams().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.rateLimited = registry.counter("blackjack.admission.rejected", "reason", "rate", "backend", "any");
+
+        AdmissionProperties.Concurrency concurrency = properties.getConcurrency();
+        properties.getBackends().forEach((name, patterns) -> {
+            AdaptiveLimit limit = new AdaptiveLimit(concurrency.getInitialLimit(),
+                    concurrency.getMinLimit(), concurrency.getMaxLimit());
+            backends.add(new Backend(name,
+                    patterns.stream().map(PathPatternParser.defaultInstance::parse).toList(),
+                    limit,
+                    registry.counter("blackjack.admission.rejected", "reason", "concurrency", "backend", name)));
+            Gauge.builder("blackjack.admission.limit", limit, AdaptiveLimit::limit)
+                    .description("Requests admitted in flight at once")
+                    .tag("backend", name)
+                    .register(registry);
+            Gauge.builder("blackjack.admission.in-flight", limit, AdaptiveLimit::inFlight)
+                    .description("Requests in flight")
+                    .tag("backend", name)
+                    .register(registry);
+        });
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Backend backend = backendOf(request.getPath().pathWithinApplication());
+        if (backend == null) {
+            return chain.filter(exchange);
+        }
+
+        if (properties.getRateLimit().isEnabled()) {
+            long wait = buckets.tryAcquire(clientOf(request));
+            if (wait > 0) {
+                rateLimited.increment();
+                return reject(exchange, Duration.ofNanos(wait));
+            }
+        }
+
+        if (!properties.getConcurrency().isEnabled() || isEventStream(request)) {
+            return chain.filter(exchange);
+        }
+        AdaptiveLimit limit = backend.limit();
+        if (!limit.tryAcquire()) {
+            backend.shed().increment();
+            return reject(exchange, Duration.ofSeconds(1));
+        }
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+                if (signal == SignalType.ON_COMPLETE && !isStreamed(exchange.getResponse())) {
+                    limit.release(System.nanoTime() - start);
+                } else {
+                    limit.release();
+                }
+            });
+        });
+    }
+
+    private Backend backendOf(PathContainer path) {
+        for (Backend backend : backends) {
+            for (PathPattern pattern : backend.paths()) {
+                if (pattern.matches(path)) {
+                    return backend;
+                }
+            }
+        }
+        return null;
+    }
+
+    // The address the request connects from, since a client can send any id it likes. Only a
+    // trusted proxy, which connects for many clients, is believed about whom it connects for.
+    private String clientOf(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null || address.getAddress() == null) {
+            return "unknown";
+        }
+        String remote = address.getAddress().getHostAddress();
+        if (trustedProxies.contains(remote)) {
+            String client = request.getHeaders().getFirst(properties.getRateLimit().getClientHeader());
+            if (client != null && !client.isBlank() && client.length() <= MAX_CLIENT_LENGTH) {
+                return client;
+            }
+        }
+        return remote;
+    }
+
+    private boolean isEventStream(ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        return eventStreams.stream().anyMatch(pattern -> pattern.matches(path))
+                && request.getHeaders().getAccept().stream().anyMatch(MediaType.TEXT_EVENT_STREAM::equalsTypeAndSubtype);
+    }
+
+    private static boolean isStreamed(ServerHttpResponse response) {
+        MediaType type = response.getHeaders().getContentType();
+        return type != null && (MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(type)
+                || MediaType.TEXT_EVENT_STREAM.equalsTypeAndSubtype(type));
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, Duration retryAfter) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        return response.setComplete();
+    }
+}
@@ -0,0 +1,56 @@
+package blackjack.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * A token bucket per client, refilled at a steady rate up to its burst size. Buckets are
+ * held in a bounded cache that evicts the least recently used and the idle ones, so a flood
+ * of client ids costs bounded memory; an evicted client starts again with a full bucket.
+ */
+final class TokenBuckets {
+
+    private final Cache<String, Bucket> buckets;
+    private final double tokensPerNano;
+    private final int burst;
+
+    TokenBuckets(double requestsPerSecond, int burst, long maxClients, Duration idleTimeout) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        this.tokensPerNano = requestsPerSecond / 1e9;
+        this.burst = burst;
+    }
+
+    /**
+     * Takes a token from the client's bucket. Returns 0 if it got one, else the nanos until
+     * the bucket has one again.
+     */
+    long tryAcquire(String client) {
+        long now = System.nanoTime();
+        return buckets.get(client, key -> new Bucket(burst, now)).tryAcquire(now);
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+
+        private synchronized long tryAcquire(long now) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = Math.max(refilledAt, now);
+            if (tokens >= 1) {
+                tokens--;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package blackjack.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.admission")
+public class AdmissionProperties {
+
+    private RateLimit rateLimit = new RateLimit();
+
+    private Concurrency concurrency = new Concurrency();
+
+    // Paths of the requests each backend serves, only these are admitted or shed
+    private Map<String, List<String>> backends = new LinkedHashMap<>(Map.of(
+            "games", List.of("/games/**", "/tables/**"),
+            "players", List.of("/players/**"),
+            "simulations", List.of("/simulations/**")));
+
+    // Event streams, held outside the concurrency limit when an event stream is asked for on one of these paths
+    private List<String> eventStreams = new ArrayList<>(List.of("/games/*/events", "/players/ranking/stream"));
+
+    @Data
+    public static class RateLimit {
+
+        private boolean enabled = true;
+
+        // A client is the address it connects from; behind a proxy listed here, it is the id the proxy puts in this header
+        private String clientHeader = "X-Client-Id";
+
+        private List<String> trustedProxies = new ArrayList<>();
+
+        // Sustained rate of one client, and the burst it may send on top of it
+        private double requestsPerSecond = 50;
+
+        private int burst = 100;
+
+        // Buckets kept in memory, an evicted client starts again with a full bucket
+        private long maxClients = 100_000;
+
+        private Duration idleTimeout = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Concurrency {
+
+        private boolean enabled = true;
+
+        // Requests in flight per backend, the limit moves between min and max with latency
+        private int initialLimit = 64;
+
+        private int minLimit = 8;
+
+        private int maxLimit = 1_000;
+    }
+}
@@ -0,0 +1,19 @@
+package blackjack.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.archive")
+public class ArchiveProperties {
+
+    // Settled finished games are moved to the history collection on this interval
+    private Duration interval = Duration.ofMinutes(1);
+
+    private int batchSize = 500;
+
+    // Archived games are removed by a TTL index this long after they finished
+    private Duration ttl = Duration.ofDays(90);
+}
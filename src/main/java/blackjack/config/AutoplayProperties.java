@@ -0,0 +1,15 @@
+package blackjack.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.autoplay")
+public class AutoplayProperties {
+
+    // Most hands played in one POST /players/{id}/autoplay
+    private int maxHands = 10_000;
+
+    // Hands of one request in play at the same time, so their journal writes are committed together
+    private int concurrency = 32;
+}
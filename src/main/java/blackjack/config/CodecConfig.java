@@ -0,0 +1,15 @@
+package blackjack.config;
+
+import blackjack.controller.codec.GameCodecs;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CodecConfig {
+
+    @Bean
+    public CodecCustomizer gameCodecs() {
+        return configurer -> GameCodecs.register(configurer.customCodecs());
+    }
+}
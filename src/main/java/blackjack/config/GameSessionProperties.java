@@ -0,0 +1,30 @@
+package blackjack.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.session")
+public class GameSessionProperties {
+
+    // Upper bound of ACTIVE games kept in memory, the least recently used are snapshotted and evicted
+    private long maxActiveGames = 10_000;
+
+    // ACTIVE games untouched for this long are snapshotted and evicted
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    // Moves journaled between two snapshots of a game, bounds the journal replayed to load it
+    private int snapshotEvery = 8;
+
+    // Most journal entries in one write, the moves recorded while a write is in flight share the next
+    private int journalBatchSize = 500;
+
+    // Attempts again at the snapshot of a finished game, the ledger recovery and the archiver only read the store
+    private int snapshotRetries = 3;
+
+    private Duration snapshotRetryBackoff = Duration.ofMillis(100);
+
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,16 @@
+package blackjack.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.idempotency")
+public class IdempotencyProperties {
+
+    private long maxSize = 100_000;
+
+    // How long a retried move with the same key gets the first outcome instead of being applied again
+    private Duration ttl = Duration.ofMinutes(10);
+}
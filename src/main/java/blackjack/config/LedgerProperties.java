@@ -0,0 +1,16 @@
+package blackjack.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.ledger")
+public class LedgerProperties {
+
+    // Points deltas are coalesced per player over this window and written as one batch
+    private Duration flushWindow = Duration.ofMillis(200);
+
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,15 @@
+package blackjack.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.move-batch")
+public class MoveBatchProperties {
+
+    // Most moves accepted in one POST /games/moves
+    private int maxMoves = 1_000;
+
+    // Games of a batch played at the same time, the moves of one game are applied in order
+    private int concurrency = 64;
+}
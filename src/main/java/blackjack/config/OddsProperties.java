@@ -0,0 +1,12 @@
+package blackjack.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.odds")
+public class OddsProperties {
+
+    // Dealer outcome distributions kept for reuse, keyed by remaining deck composition and dealer hand
+    private long cacheSize = 200_000;
+}
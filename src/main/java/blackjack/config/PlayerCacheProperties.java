@@ -0,0 +1,16 @@
+package blackjack.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.player-cache")
+public class PlayerCacheProperties {
+
+    private long maxSize = 100_000;
+
+    // Bounds how stale a player can be if a change bypasses the cache
+    private Duration ttl = Duration.ofSeconds(5);
+}
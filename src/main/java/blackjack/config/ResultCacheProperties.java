@@ -0,0 +1,19 @@
+package blackjack.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.result-cache")
+public class ResultCacheProperties {
+
+    private long maxSize = 100_000;
+
+    // Finished games never change, this only bounds how long an unpolled result is kept
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    // Cache-Control max-age of a result, the player's points in it are as stale as the player cache
+    private Duration maxAge = Duration.ofSeconds(5);
+}
@@ -0,0 +1,18 @@
+package blackjack.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.shoe")
+public class ShoeProperties {
+
+    // Number of 56-card decks shuffled together into one shoe, 1 to 8
+    private int decks = 1;
+
+    // Fraction of the shoe dealt before the cut card forces a reshuffle, at least one deal
+    private double penetration = 0.75;
+
+    // Shuffled shoes kept ready ahead of demand
+    private int poolSize = 256;
+}
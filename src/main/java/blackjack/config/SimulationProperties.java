@@ -0,0 +1,12 @@
+package blackjack.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.simulation")
+public class SimulationProperties {
+
+    // Jobs running at once, they share one fork-join pool and further requests are refused
+    private int maxConcurrentJobs = 2;
+}
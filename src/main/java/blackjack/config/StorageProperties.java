@@ -0,0 +1,41 @@
+package blackjack.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.storage")
+public class StorageProperties {
+
+    public enum Engine {
+        // Games in Mongo, players in MySQL, through the Spring Data repositories
+        REPOSITORY,
+        // Everything in process, recovered from snapshot and journal files
+        MEMORY
+    }
+
+    private Engine engine = Engine.REPOSITORY;
+
+    // How long startup waits for the stores to create and check their indexes
+    private Duration schemaTimeout = Duration.ofSeconds(30);
+
+    private Memory memory = new Memory();
+
+    @Data
+    public static class Memory {
+
+        private Path directory = Path.of("data");
+
+        // A snapshot compacts the journal, which is replayed on top of it at startup
+        private Duration snapshotInterval = Duration.ofMinutes(1);
+
+        // Journal and snapshot files are mapped, and grown, in regions of this size
+        private DataSize mappedRegionSize = DataSize.ofMegabytes(16);
+
+        private int stripes = 64;
+    }
+}
@@ -0,0 +1,20 @@
+package blackjack.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.streams")
+public class StreamProperties {
+
+    // Updates held per slow subscriber, the oldest are dropped beyond this
+    private int bufferSize = 32;
+
+    // How often the ranking is checked for changes, a stream gets at most one delta per period
+    private Duration rankingInterval = Duration.ofSeconds(1);
+
+    // Largest top N of the ranking a stream can follow
+    private int maxRankingSize = 100;
+}
@@ -0,0 +1,22 @@
+package blackjack.controller;
+
+import blackjack.exception.DomainException;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers every domain error with its status and message as a problem detail, in one place
+ * instead of each endpoint. Anything else is a failure of the service and is left to the
+ * default error handling, which logs it and answers 500 without details.
+ */
+@RestControllerAdvice
+public class DomainExceptionHandler {
+
+    @ExceptionHandler(DomainException.class)
+    public ResponseEntity<ProblemDetail> handle(DomainException error) {
+        return ResponseEntity.status(error.getStatus())
+                .body(ProblemDetail.forStatusAndDetail(error.getStatus(), error.getMessage().trim()));
+    }
+}
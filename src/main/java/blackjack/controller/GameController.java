@@ -1,36 +1,62 @@
 package blackjack.controller;
 
+import blackjack.config.MoveBatchProperties;
+import blackjack.config.ResultCacheProperties;
+import blackjack.controller.codec.GameCodecs;
 import blackjack.model.dto.GameDTO;
-import blackjack.model.dto.mapDTO;
+import blackjack.model.dto.GameEventDTO;
+import blackjack.model.dto.MoveRequestDTO;
+import blackjack.model.dto.MoveResultDTO;
+import blackjack.model.dto.OddsDTO;
+import blackjack.model.dto.PlayerDTO;
+import blackjack.model.enums.GameStatus;
 import blackjack.model.enums.MoveType;
 import blackjack.service.GameService;
+import blackjack.service.OddsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Objects;
+
 @RestController
 @RequestMapping("/games")
 public class GameController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final GameService gameService;
+    private final OddsService oddsService;
+    private final MoveBatchProperties moveBatchProperties;
+    private final CacheControl resultCacheControl;
 
-    public GameController(GameService gameService) {
+    public GameController(GameService gameService, OddsService oddsService, MoveBatchProperties moveBatchProperties,
+                          ResultCacheProperties resultCacheProperties) {
         this.gameService = gameService;
+        this.oddsService = oddsService;
+        this.moveBatchProperties = moveBatchProperties;
+        this.resultCacheControl = CacheControl.maxAge(resultCacheProperties.getMaxAge()).cachePrivate();
     }
 
-    @PostMapping("/new")
+    @PostMapping(value = "/new", produces = {MediaType.APPLICATION_JSON_VALUE, GameCodecs.COMPACT_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public Mono<ResponseEntity<GameDTO>> createGame(@RequestBody String playerName) {
         return gameService.createGame(playerName)
-                .map(mapDTO::toGameDTO)
-                .map(gameDTO -> ResponseEntity.status(HttpStatus.CREATED).body(gameDTO))
-                .onErrorResume(error -> Mono.just(ResponseEntity.badRequest().build()));
+                .flatMap(gameService::toGameDTO)
+                .map(gameDTO -> ResponseEntity.status(HttpStatus.CREATED).body(gameDTO));
     }
 
-    @GetMapping("/{gameId}")
+    @GetMapping(value = "/{gameId}", produces = {MediaType.APPLICATION_JSON_VALUE, GameCodecs.COMPACT_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     @Operation(summary = "Get game by ID", description = "Returns the details of a game")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Game details found"),
@@ -41,22 +67,75 @@ public class GameController {
             return Mono.just(ResponseEntity.badRequest().build());
         }
         return gameService.getGameById(gameId)
-                .map(mapDTO::toGameDTO)
+                .flatMap(gameService::toGameDTO)
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
-    @PostMapping("/{gameId}/move")
-    public Mono<ResponseEntity<GameDTO>> makeMove(@PathVariable String gameId, @RequestBody String move) {
+    @PostMapping(value = "/{gameId}/move", produces = {MediaType.APPLICATION_JSON_VALUE, GameCodecs.COMPACT_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Make a move", description = "Applies HIT or STAND, optionally only if the game is at the version given in If-Match. "
+            + "A retry with the same Idempotency-Key returns the outcome of the first attempt instead of applying the move again")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Move applied"),
+            @ApiResponse(responseCode = "400", description = "Invalid move, version or idempotency key"),
+            @ApiResponse(responseCode = "404", description = "Game not found"),
+            @ApiResponse(responseCode = "409", description = "Game was modified concurrently"),
+            @ApiResponse(responseCode = "422", description = "Idempotency key already used for another move")
+    })
+    public Mono<ResponseEntity<GameDTO>> makeMove(@PathVariable String gameId, @RequestBody String move,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
         MoveType moveType = parseMoveType(move);
         if (moveType == null) {
             return Mono.just(ResponseEntity.badRequest().body(null));
         }
-        return gameService.playerMove(gameId, moveType)
-                .map(mapDTO::toGameDTO)
-                .map(ResponseEntity::ok)
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            return Mono.just(ResponseEntity.badRequest().body(null));
+        }
+        Long expectedVersion = null;
+        if (ifMatch != null) {
+            expectedVersion = parseVersion(ifMatch);
+            if (expectedVersion == null) {
+                return Mono.just(ResponseEntity.badRequest().body(null));
+            }
+        }
+        return gameService.playerMove(gameId, moveType, expectedVersion, idempotencyKey)
+                .flatMap(gameService::toGameDTO)
+                .map(gameDTO -> ResponseEntity.ok().eTag(Long.toString(gameDTO.getVersion())).body(gameDTO))
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
+
+    @PostMapping(value = "/moves", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Make moves in a batch", description = "Applies many moves in one request, the moves of one game in order and "
+            + "different games concurrently. Streams one result per move as it is committed, with its position in the batch "
+            + "and the status the single move endpoint would have answered with")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Results of the moves, one per line"),
+            @ApiResponse(responseCode = "400", description = "Empty or too large batch, or a move without game or move type, or with an invalid idempotency key")
+    })
+    public ResponseEntity<Flux<MoveResultDTO>> makeMoves(@RequestBody List<MoveRequestDTO> moves) {
+        if (moves.isEmpty() || moves.size() > moveBatchProperties.getMaxMoves() || !moves.stream().allMatch(this::isValid)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(gameService.playerMoves(moves));
+    }
+
+    private boolean isValid(MoveRequestDTO move) {
+        String idempotencyKey = move.getIdempotencyKey();
+        return move.getGameId() != null && !move.getGameId().isBlank() && move.getMove() != null
+                && (idempotencyKey == null || !idempotencyKey.isBlank() && idempotencyKey.length() <= MAX_IDEMPOTENCY_KEY_LENGTH);
+    }
+
+    private Long parseVersion(String eTag) {
+        try {
+            return Long.parseLong(eTag.replace("W/", "").replace("\"", "").trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     private MoveType parseMoveType(String move) {
         if (move == null || move.isBlank()) return null;
         try {
@@ -66,25 +145,103 @@ public class GameController {
         }
     }
 
-    @Operation(summary = "Get game result", description = "Returns the result of the game and final scores")
+    @Operation(summary = "Get game result", description = "Returns the result of a finished game and final scores. "
+            + "Repeat polls with the ETag in If-None-Match are answered with 304")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Game result found"),
-            @ApiResponse(responseCode = "404", description = "Game not found")
+            @ApiResponse(responseCode = "304", description = "Result not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "404", description = "Game not found"),
+            @ApiResponse(responseCode = "409", description = "Game is still in play")
     })
-    @GetMapping("/{gameId}/result")
+    @GetMapping(value = "/{gameId}/result", produces = {MediaType.APPLICATION_JSON_VALUE, GameCodecs.COMPACT_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public Mono<ResponseEntity<GameDTO>> getWinner(@PathVariable String gameId) {
+        return gameService.getResult(gameId)
+                .flatMap(game -> game.getGameStatus() != GameStatus.FINISHED
+                        ? Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).<GameDTO>build())
+                        : gameService.toGameDTO(game).map(gameDTO -> ResponseEntity.ok()
+                                .eTag(resultTag(gameDTO))
+                                .varyBy(HttpHeaders.ACCEPT)
+                                .cacheControl(resultCacheControl)
+                                .body(gameDTO)))
+                .defaultIfEmpty(ResponseEntity.notFound().build()); // 404 Not Found
+    }
+
+    // The game part of a result is final, the player's name and points in it are not
+    private static String resultTag(GameDTO gameDTO) {
+        PlayerDTO player = gameDTO.getPlayerDTO();
+        return gameDTO.getVersion() + "-" + Integer.toHexString(Objects.hash(player.getName(), player.getTotalPoints()));
+    }
+
+    @GetMapping("/{gameId}/odds")
+    @Operation(summary = "Get game odds", description = "Returns the exact dealer and HIT/STAND odds from the cards still unseen by the player")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Odds computed"),
+            @ApiResponse(responseCode = "404", description = "Game not found"),
+            @ApiResponse(responseCode = "409", description = "Game is already finished")
+    })
+    public Mono<ResponseEntity<OddsDTO>> getOdds(@PathVariable String gameId) {
+        return gameService.getGameById(gameId)
+                .map(game -> game.getGameStatus() == GameStatus.ACTIVE
+                        ? ResponseEntity.ok(oddsService.odds(game))
+                        : ResponseEntity.status(HttpStatus.CONFLICT).<OddsDTO>build())
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/{gameId}/events", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get game events", description = "Returns the journal of the game for audits: the deal, every card drawn and the settlement, "
+            + "with the version each move took the game to. Available once the game is finished and until the game history expires")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Game events found"),
+            @ApiResponse(responseCode = "404", description = "Game has no journal"),
+            @ApiResponse(responseCode = "409", description = "Game is still in play")
+    })
+    public Mono<ResponseEntity<List<GameEventDTO>>> getEvents(@PathVariable String gameId) {
+        return gameService.getGameEvents(gameId)
+                .collectList()
+                .map(events -> events.isEmpty()
+                        ? ResponseEntity.notFound().<List<GameEventDTO>>build()
+                        : ResponseEntity.ok(events));
+    }
+
+    @GetMapping(value = "/{gameId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Watch a game", description = "Server-sent events of the game: its state now, then every version as it is committed, "
+            + "until it finishes. A client falling behind skips versions. Requested with Accept: text/event-stream")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Game states streamed, the event id is the version"),
+            @ApiResponse(responseCode = "404", description = "Game not found")
+    })
+    public Mono<ResponseEntity<Flux<ServerSentEvent<GameDTO>>>> watchGame(@PathVariable String gameId) {
         return gameService.getGameById(gameId)
-                .flatMap(gameService::finishGame)
-                .map(mapDTO::toGameDTO)
+                .map(game -> ResponseEntity.ok(gameService.watchGame(gameId)
+                        .map(gameDTO -> ServerSentEvent.builder(gameDTO)
+                                .id(Long.toString(gameDTO.getVersion()))
+                                .event("game")
+                                .build())))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/{gameId}/replay", produces = {MediaType.APPLICATION_JSON_VALUE, GameCodecs.COMPACT_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Replay a game", description = "Rebuilds the game from its journal as it was at the given version, or at its last version")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Game replayed"),
+            @ApiResponse(responseCode = "400", description = "Invalid version"),
+            @ApiResponse(responseCode = "404", description = "Game has no journal")
+    })
+    public Mono<ResponseEntity<GameDTO>> replayGame(@PathVariable String gameId,
+                                                    @RequestParam(defaultValue = "" + Long.MAX_VALUE) long version) {
+        if (version < 0) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return gameService.replayGame(gameId, version)
+                .flatMap(gameService::toGameDTO)
                 .map(ResponseEntity::ok)
-                .defaultIfEmpty(ResponseEntity.notFound().build()); // 404 Not Found
+                .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{gameId}/delete")
     public Mono<ResponseEntity<Object>> deleteGame(@PathVariable String gameId) {
         return gameService.deleteGame(gameId)
-                .then(Mono.just(ResponseEntity.noContent().build()))
-                .onErrorResume(error -> Mono.just(ResponseEntity.notFound().build()));
+                .then(Mono.just(ResponseEntity.noContent().build()));
     }
 
 }
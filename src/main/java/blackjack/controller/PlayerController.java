@@ -1,36 +1,53 @@
 package blackjack.controller;
 
+import blackjack.config.AutoplayProperties;
+import blackjack.config.StreamProperties;
 import blackjack.model.Player;
+import blackjack.model.dto.GameDTO;
+import blackjack.model.dto.GameHistoryDTO;
+import blackjack.model.dto.RankingDTO;
+import blackjack.service.GameService;
 import blackjack.service.PlayerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/players")
 public class PlayerController {
 
+    private static final int MAX_RANKING_PAGE = 500;
+    private static final int MAX_HISTORY_PAGE = 500;
+
     private final PlayerService playerService;
+    private final GameService gameService;
+    private final StreamProperties streamProperties;
+    private final AutoplayProperties autoplayProperties;
 
     @PostMapping("/new")
     @Operation(summary = "Create a new player", description = "Adds a new player to the system")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Player created successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid player name")
+            @ApiResponse(responseCode = "400", description = "Invalid player name"),
+            @ApiResponse(responseCode = "409", description = "Player name already taken")
     })
     public Mono<ResponseEntity<Player>> createPlayer(@RequestBody String playerName) {
         if (playerName == null || playerName.isBlank()) {
             return Mono.just(ResponseEntity.badRequest().build());
         }
         return playerService.createPlayer(playerName)
-                .map(savedPlayer -> ResponseEntity.status(201).body(savedPlayer))
-                .onErrorResume(error -> Mono.just(ResponseEntity.badRequest().build()));
+                .map(savedPlayer -> ResponseEntity.status(201).body(savedPlayer));
     }
 
     @GetMapping("/{playerId}")
@@ -46,25 +63,58 @@ public class PlayerController {
     }
 
     @GetMapping("/ranking")
-    @Operation(summary = "Get player ranking", description = "Returns a list of players sorted by total points")
+    @Operation(summary = "Get player ranking", description = "Returns a page of players sorted by total points")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Ranking retrieved successfully"),
-            @ApiResponse(responseCode = "204", description = "No players in the ranking")
+            @ApiResponse(responseCode = "204", description = "No players in the requested page"),
+            @ApiResponse(responseCode = "400", description = "Invalid offset or limit")
     })
-    public Mono<ResponseEntity<Flux<Player>>> getRanking() {
-        return playerService.getRanking()
+    public Mono<ResponseEntity<Flux<RankingDTO>>> getRanking(@RequestParam(defaultValue = "0") int offset,
+                                                             @RequestParam(defaultValue = "50") int limit) {
+        if (offset < 0 || limit < 1 || limit > MAX_RANKING_PAGE) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return playerService.getRanking(offset, limit)
                 .collectList()
                 .map(players -> players.isEmpty()
                         ? ResponseEntity.noContent().build()
                         : ResponseEntity.ok(Flux.fromIterable(players)));
     }
 
+    @GetMapping(value = "/ranking/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Follow the player ranking", description = "Server-sent events of the top of the ranking: the whole top first, "
+            + "then only the rows that changed, each with its rank. A row with id 0 and no name ends a top that got shorter")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ranking changes streamed"),
+            @ApiResponse(responseCode = "400", description = "Invalid top size")
+    })
+    public ResponseEntity<Flux<ServerSentEvent<List<RankingDTO>>>> streamRanking(@RequestParam(defaultValue = "10") int top) {
+        if (top < 1 || top > streamProperties.getMaxRankingSize()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(playerService.getRankingUpdates(top)
+                .map(rows -> ServerSentEvent.builder(rows).event("ranking").build()));
+    }
+
+    @GetMapping("/{playerId}/rank")
+    @Operation(summary = "Get player rank", description = "Returns the ranking position of the player with the given ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rank found"),
+            @ApiResponse(responseCode = "404", description = "Player not found")
+    })
+    public Mono<ResponseEntity<RankingDTO>> getRank(@PathVariable int playerId) {
+        return playerService.getRank(playerId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
     @PutMapping("/{playerId}/name")
     @Operation(summary = "Update player name", description = "Updates the name of the player with the given ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Player name updated successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid new player name"),
-            @ApiResponse(responseCode = "404", description = "Player not found")
+            @ApiResponse(responseCode = "404", description = "Player not found"),
+            @ApiResponse(responseCode = "409", description = "Player name already taken")
     })
     public Mono<ResponseEntity<Player>> updateName(@PathVariable int playerId, @RequestBody String newName) {
         if (newName == null || newName.isBlank()) {
@@ -74,4 +124,39 @@ public class PlayerController {
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
+
+    @GetMapping(value = "/{playerId}/games", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Get player game history", description = "Streams a page of the player's archived games, newest first. "
+            + "Pass the id of the last game of a page as cursor to get the next page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "History page streamed"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit"),
+            @ApiResponse(responseCode = "404", description = "Player not found")
+    })
+    public Mono<ResponseEntity<Flux<GameHistoryDTO>>> getHistory(@PathVariable int playerId,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(defaultValue = "50") int limit) {
+        if ((cursor != null && !ObjectId.isValid(cursor)) || limit < 1 || limit > MAX_HISTORY_PAGE) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return playerService.getPlayerById(playerId)
+                .map(player -> ResponseEntity.ok(playerService.getHistory(playerId, cursor, limit)));
+    }
+
+    @PostMapping(value = "/{playerId}/autoplay", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Autoplay games", description = "Plays the given number of real games for the player server-side with "
+            + "basic strategy, and streams each game as NDJSON once finished")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Finished games streamed"),
+            @ApiResponse(responseCode = "400", description = "Invalid number of hands"),
+            @ApiResponse(responseCode = "404", description = "Player not found")
+    })
+    public Mono<ResponseEntity<Flux<GameDTO>>> autoplay(@PathVariable int playerId, @RequestParam int hands) {
+        if (hands < 1 || hands > autoplayProperties.getMaxHands()) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return playerService.getPlayerById(playerId)
+                .map(player -> ResponseEntity.ok(gameService.autoplay(playerId, hands)
+                        .concatMap(gameService::toGameDTO)));
+    }
 }
@@ -0,0 +1,34 @@
+package blackjack.controller;
+
+import blackjack.model.dto.SimulationReportDTO;
+import blackjack.model.dto.SimulationRequestDTO;
+import blackjack.service.SimulationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/simulations")
+public class SimulationController {
+
+    private final SimulationService simulationService;
+
+    @PostMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Run a simulation", description = "Plays the requested hands with the game rules and streams cumulative statistics")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Progress reports, the last one has done set"),
+            @ApiResponse(responseCode = "400", description = "Invalid simulation parameters"),
+            @ApiResponse(responseCode = "503", description = "Too many simulations are running")
+    })
+    public Flux<SimulationReportDTO> simulate(@RequestBody SimulationRequestDTO request) {
+        return simulationService.simulate(request);
+    }
+}
@@ -0,0 +1,96 @@
+package blackjack.controller;
+
+import blackjack.exception.PlayerNotFoundException;
+import blackjack.model.Table;
+import blackjack.model.dto.TableDTO;
+import blackjack.model.dto.mapDTO;
+import blackjack.model.enums.MoveType;
+import blackjack.service.TableService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/tables")
+public class TableController {
+
+    private final TableService tableService;
+
+    @PostMapping("/new")
+    @Operation(summary = "Open a table", description = "Seats the given player ids in order, up to seven, and deals the first round from one shoe")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Table opened"),
+            @ApiResponse(responseCode = "400", description = "No players, too many players or an unknown player")
+    })
+    public Mono<ResponseEntity<TableDTO>> createTable(@RequestBody List<Integer> playerIds) {
+        if (playerIds.isEmpty() || playerIds.size() > TableService.MAX_SEATS || playerIds.contains(null)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return tableService.createTable(playerIds)
+                .map(table -> ResponseEntity.status(HttpStatus.CREATED).body(mapDTO.toTableDTO(table)))
+                .onErrorResume(PlayerNotFoundException.class, error -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    @GetMapping("/{tableId}")
+    @Operation(summary = "Get table by ID", description = "Returns the seats and the dealer hand of the current round")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Table found"),
+            @ApiResponse(responseCode = "404", description = "Table not found")
+    })
+    public Mono<ResponseEntity<TableDTO>> getTable(@PathVariable String tableId) {
+        return tableService.getTable(tableId)
+                .map(table -> ResponseEntity.ok(mapDTO.toTableDTO(table)))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{tableId}/seats/{seat}/move")
+    @Operation(summary = "Make a move at a seat", description = "Applies HIT or STAND to a seat of the current round. "
+            + "The move of the last seat in play lets the dealer play and settles every seat")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Move applied"),
+            @ApiResponse(responseCode = "400", description = "Invalid move or seat"),
+            @ApiResponse(responseCode = "404", description = "Table not found"),
+            @ApiResponse(responseCode = "409", description = "Round is over or the seat is no longer in play")
+    })
+    public Mono<ResponseEntity<TableDTO>> makeMove(@PathVariable String tableId, @PathVariable int seat, @RequestBody String move) {
+        MoveType moveType = parseMoveType(move);
+        if (moveType == null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return respond(tableService.playerMove(tableId, seat, moveType));
+    }
+
+    @PostMapping("/{tableId}/rounds")
+    @Operation(summary = "Deal the next round", description = "Deals a new round to every seat from the same shoe once the last round is finished")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Round dealt"),
+            @ApiResponse(responseCode = "404", description = "Table not found"),
+            @ApiResponse(responseCode = "409", description = "Round still in play or still being settled")
+    })
+    public Mono<ResponseEntity<TableDTO>> nextRound(@PathVariable String tableId) {
+        return respond(tableService.nextRound(tableId));
+    }
+
+    private Mono<ResponseEntity<TableDTO>> respond(Mono<Table> change) {
+        return change
+                .map(table -> ResponseEntity.ok().eTag(Long.toString(table.getVersion())).body(mapDTO.toTableDTO(table)))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    private MoveType parseMoveType(String move) {
+        if (move == null || move.isBlank()) return null;
+        try {
+            return MoveType.valueOf(move.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package blackjack.controller.codec;
+
+import blackjack.model.Card;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Short card codes of the compact wire formats: the value then the suit, as in
+ * {@code "AS"} for the ace of spades or {@code "10H"} for the ten of hearts.
+ */
+public final class CardCodes {
+
+    private static final String[] SUITS = {"S", "D", "H", "C"};
+    private static final String[] VALUES = {"1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
+
+    // Indexed by card code, both ways are a lookup
+    private static final String[] CODES = new String[Card.DECK_SIZE];
+    private static final Map<String, Card> CARDS = new HashMap<>();
+
+    static {
+        for (Card.Suit suit : Card.Suit.values()) {
+            for (Card.Value value : Card.Value.values()) {
+                Card card = Card.of(suit, value);
+                String code = VALUES[value.ordinal()] + SUITS[suit.ordinal()];
+                CODES[card.code()] = code;
+                CARDS.put(code, card);
+            }
+        }
+    }
+
+    private CardCodes() {
+    }
+
+    public static String of(Card card) {
+        return CODES[card.code()];
+    }
+
+    public static Card parse(String code) {
+        Card card = CARDS.get(code);
+        if (card == null) {
+            throw new IllegalArgumentException("Unknown card code '" + code + "'");
+        }
+        return card;
+    }
+}
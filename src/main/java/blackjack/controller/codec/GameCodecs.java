@@ -0,0 +1,112 @@
+package blackjack.controller.codec;
+
+import blackjack.model.dto.GameDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.CodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+/**
+ * Compact wire formats of {@link GameDTO}, chosen by the {@code Accept} header: JSON with
+ * cards as short codes ({@code "AS"}, {@code "10H"}) and null fields left out, and CBOR
+ * of the same structure. Both are written and read by hand-written streaming serializers,
+ * without introspecting the DTO. The codecs only take games, other types keep the default
+ * JSON codec.
+ */
+public final class GameCodecs {
+
+    public static final String COMPACT_JSON_VALUE = "application/vnd.blackjack.compact+json";
+    public static final MediaType COMPACT_JSON = MediaType.parseMediaType(COMPACT_JSON_VALUE);
+
+    private GameCodecs() {
+    }
+
+    public static void register(CodecConfigurer.CustomCodecs codecs) {
+        ObjectMapper json = JsonMapper.builder().addModule(module()).build();
+        ObjectMapper cbor = CBORMapper.builder().addModule(module()).build();
+        codecs.register(new CompactJsonEncoder(json));
+        codecs.register(new CompactJsonDecoder(json));
+        codecs.register(new CborEncoder(cbor));
+        codecs.register(new CborDecoder(cbor));
+    }
+
+    private static SimpleModule module() {
+        return new SimpleModule("compact-games")
+                .addSerializer(GameDTO.class, new GameDTOSerializer())
+                .addDeserializer(GameDTO.class, new GameDTODeserializer());
+    }
+
+    private static boolean isGame(ResolvableType elementType) {
+        return GameDTO.class.isAssignableFrom(elementType.toClass());
+    }
+
+    private static final class CompactJsonEncoder extends Jackson2JsonEncoder {
+
+        private CompactJsonEncoder(ObjectMapper mapper) {
+            super(mapper, COMPACT_JSON);
+        }
+
+        @Override
+        public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+            return isGame(elementType) && super.canEncode(elementType, mimeType);
+        }
+    }
+
+    private static final class CompactJsonDecoder extends Jackson2JsonDecoder {
+
+        private CompactJsonDecoder(ObjectMapper mapper) {
+            super(mapper, COMPACT_JSON);
+        }
+
+        @Override
+        public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+            return isGame(elementType) && super.canDecode(elementType, mimeType);
+        }
+    }
+
+    private static final class CborEncoder extends Jackson2CborEncoder {
+
+        private CborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+            return isGame(elementType) && super.canEncode(elementType, mimeType);
+        }
+
+        // The base encoder only encodes single values, a stream is written as a CBOR sequence
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            return Flux.from(inputStream)
+                    .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints));
+        }
+    }
+
+    private static final class CborDecoder extends Jackson2CborDecoder {
+
+        private CborDecoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+            return isGame(elementType) && super.canDecode(elementType, mimeType);
+        }
+    }
+}
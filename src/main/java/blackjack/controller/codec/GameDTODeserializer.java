@@ -0,0 +1,89 @@
+package blackjack.controller.codec;
+
+import blackjack.model.Card;
+import blackjack.model.dto.GameDTO;
+import blackjack.model.dto.PlayerDTO;
+import blackjack.model.enums.GameStatus;
+import blackjack.model.enums.Participant;
+import blackjack.model.enums.PlayerStatus;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads what {@link GameDTOSerializer} writes back into a {@link GameDTO}. Unknown fields
+ * are skipped, so clients may read responses of a newer server.
+ */
+final class GameDTODeserializer extends StdDeserializer<GameDTO> {
+
+    GameDTODeserializer() {
+        super(GameDTO.class);
+    }
+
+    @Override
+    public GameDTO deserialize(JsonParser in, DeserializationContext context) throws IOException {
+        expect(in.currentToken(), JsonToken.START_OBJECT, context);
+        GameDTO.GameDTOBuilder game = GameDTO.builder();
+        String field;
+        while ((field = in.nextFieldName()) != null) {
+            JsonToken value = in.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "id" -> game.id(in.getValueAsString());
+                case "playerDTO" -> game.playerDTO(readPlayer(in, value, context));
+                case "playerCards" -> game.playerCards(readCards(in, value, context));
+                case "dealerCards" -> game.dealerCards(readCards(in, value, context));
+                case "gameStatus" -> game.gameStatus(GameStatus.valueOf(in.getValueAsString()));
+                case "winner" -> game.winner(Participant.valueOf(in.getValueAsString()));
+                case "version" -> game.version(in.getValueAsLong());
+                default -> in.skipChildren();
+            }
+        }
+        return game.build();
+    }
+
+    private static PlayerDTO readPlayer(JsonParser in, JsonToken token, DeserializationContext context) throws IOException {
+        expect(token, JsonToken.START_OBJECT, context);
+        PlayerDTO.PlayerDTOBuilder player = PlayerDTO.builder();
+        String field;
+        while ((field = in.nextFieldName()) != null) {
+            if (in.nextToken() == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "id" -> player.id(in.getValueAsInt());
+                case "name" -> player.name(in.getValueAsString());
+                case "totalPoints" -> player.totalPoints(in.getValueAsInt());
+                case "status" -> player.status(PlayerStatus.valueOf(in.getValueAsString()));
+                default -> in.skipChildren();
+            }
+        }
+        return player.build();
+    }
+
+    private static List<Card> readCards(JsonParser in, JsonToken token, DeserializationContext context) throws IOException {
+        expect(token, JsonToken.START_ARRAY, context);
+        List<Card> cards = new ArrayList<>();
+        while (in.nextToken() != JsonToken.END_ARRAY) {
+            try {
+                cards.add(CardCodes.parse(in.getValueAsString()));
+            } catch (IllegalArgumentException e) {
+                throw context.weirdStringException(in.getText(), Card.class, e.getMessage());
+            }
+        }
+        return cards;
+    }
+
+    private static void expect(JsonToken token, JsonToken expected, DeserializationContext context) throws IOException {
+        if (token != expected) {
+            context.reportWrongTokenException(GameDTO.class, expected, "Unexpected %s in game", token);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package blackjack.controller.codec;
+
+import blackjack.model.Card;
+import blackjack.model.dto.GameDTO;
+import blackjack.model.dto.PlayerDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes a {@link GameDTO} field by field, with cards as {@link CardCodes} and null fields
+ * left out. The same writer serves compact JSON and CBOR.
+ */
+final class GameDTOSerializer extends StdSerializer<GameDTO> {
+
+    static final SerializedString ID = new SerializedString("id");
+    static final SerializedString PLAYER = new SerializedString("playerDTO");
+    static final SerializedString NAME = new SerializedString("name");
+    static final SerializedString TOTAL_POINTS = new SerializedString("totalPoints");
+    static final SerializedString STATUS = new SerializedString("status");
+    static final SerializedString PLAYER_CARDS = new SerializedString("playerCards");
+    static final SerializedString DEALER_CARDS = new SerializedString("dealerCards");
+    static final SerializedString GAME_STATUS = new SerializedString("gameStatus");
+    static final SerializedString WINNER = new SerializedString("winner");
+    static final SerializedString VERSION = new SerializedString("version");
+
+    GameDTOSerializer() {
+        super(GameDTO.class);
+    }
+
+    @Override
+    public void serialize(GameDTO game, JsonGenerator out, SerializerProvider provider) throws IOException {
+        out.writeStartObject();
+        writeString(out, ID, game.getId());
+        PlayerDTO player = game.getPlayerDTO();
+        if (player != null) {
+            out.writeFieldName(PLAYER);
+            out.writeStartObject();
+            out.writeFieldName(ID);
+            out.writeNumber(player.getId());
+            writeString(out, NAME, player.getName());
+            out.writeFieldName(TOTAL_POINTS);
+            out.writeNumber(player.getTotalPoints());
+            writeString(out, STATUS, player.getStatus() != null ? player.getStatus().name() : null);
+            out.writeEndObject();
+        }
+        writeCards(out, PLAYER_CARDS, game.getPlayerCards());
+        writeCards(out, DEALER_CARDS, game.getDealerCards());
+        writeString(out, GAME_STATUS, game.getGameStatus() != null ? game.getGameStatus().name() : null);
+        writeString(out, WINNER, game.getWinner() != null ? game.getWinner().name() : null);
+        out.writeFieldName(VERSION);
+        out.writeNumber(game.getVersion());
+        out.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator out, SerializableString field, String value) throws IOException {
+        if (value != null) {
+            out.writeFieldName(field);
+            out.writeString(value);
+        }
+    }
+
+    private static void writeCards(JsonGenerator out, SerializableString field, List<Card> cards) throws IOException {
+        if (cards == null) {
+            return;
+        }
+        out.writeFieldName(field);
+        out.writeStartArray(cards, cards.size());
+        for (Card card : cards) {
+            out.writeString(CardCodes.of(card));
+        }
+        out.writeEndArray();
+    }
+}
@@ -1,7 +1,13 @@
 package blackjack.exception;
 
-public class DeckEmptyException extends RuntimeException {
-    public DeckEmptyException(String deckIsEmpty) {
-        super(deckIsEmpty);
+import org.springframework.http.HttpStatus;
+
+public class DeckEmptyException extends DomainException {
+
+    // The message names nothing of the deck, so one instance serves every empty deck
+    public static final DeckEmptyException INSTANCE = new DeckEmptyException();
+
+    private DeckEmptyException() {
+        super(HttpStatus.CONFLICT, "The deck is empty. ");
     }
 }
@@ -0,0 +1,22 @@
+package blackjack.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * An expected outcome of a request that the game refuses, such as an unknown game or a
+ * concurrent move, as opposed to a failure of the service or its stores. Domain errors are
+ * signalled through the reactive pipelines as values and answered with their status by
+ * {@code DomainExceptionHandler}, so they capture no stack trace: filling one in costs more
+ * than the rest of a refused move, and it would only ever point at the same few lines.
+ */
+@Getter
+public abstract class DomainException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    protected DomainException(HttpStatus status, String message) {
+        super(message, null, false, false);
+        this.status = status;
+    }
+}
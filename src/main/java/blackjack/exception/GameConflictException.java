@@ -0,0 +1,9 @@
+package blackjack.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class GameConflictException extends DomainException {
+    public GameConflictException(String gameId) {
+        super(HttpStatus.CONFLICT, "Game " + gameId + " was modified concurrently. ");
+    }
+}
@@ -0,0 +1,9 @@
+package blackjack.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class GameInPlayException extends DomainException {
+    public GameInPlayException(String gameId) {
+        super(HttpStatus.CONFLICT, "Game " + gameId + " is still in play. ");
+    }
+}
@@ -1,7 +1,9 @@
 package blackjack.exception;
 
-public class GameNotFoundException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+
+public class GameNotFoundException extends DomainException {
     public GameNotFoundException(String gameId) {
-        super("Game " + gameId + " not found. ");
+        super(HttpStatus.NOT_FOUND, "Game " + gameId + " not found. ");
     }
 }
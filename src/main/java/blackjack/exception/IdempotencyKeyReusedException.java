@@ -0,0 +1,9 @@
+package blackjack.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class IdempotencyKeyReusedException extends DomainException {
+    public IdempotencyKeyReusedException(String idempotencyKey) {
+        super(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency key " + idempotencyKey + " was already used for another move. ");
+    }
+}
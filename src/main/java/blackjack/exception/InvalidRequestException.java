@@ -0,0 +1,12 @@
+package blackjack.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidRequestException extends DomainException {
+
+    public static final InvalidRequestException BLANK_PLAYER_NAME = new InvalidRequestException("Player name cannot be null or empty");
+
+    public InvalidRequestException(String message) {
+        super(HttpStatus.BAD_REQUEST, message + ". ");
+    }
+}
@@ -0,0 +1,9 @@
+package blackjack.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class PlayerNameTakenException extends DomainException {
+    public PlayerNameTakenException(String playerName) {
+        super(HttpStatus.CONFLICT, "Player with name '" + playerName + "' already exists. ");
+    }
+}
@@ -1,10 +1,12 @@
 package blackjack.exception;
 
-public class PlayerNotFoundException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+
+public class PlayerNotFoundException extends DomainException {
     public PlayerNotFoundException(String playerName) {
-        super("Player " + playerName + " not found. ");
+        super(HttpStatus.NOT_FOUND, "Player " + playerName + " not found. ");
     }
     public PlayerNotFoundException(Integer playerId) {
-        super("Player with ID " + playerId + " not found. ");
+        super(HttpStatus.NOT_FOUND, "Player with ID " + playerId + " not found. ");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package blackjack.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class SimulationsBusyException extends DomainException {
+
+    public static final SimulationsBusyException INSTANCE = new SimulationsBusyException();
+
+    private SimulationsBusyException() {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Too many simulations are running, try again later. ");
+    }
+}
@@ -0,0 +1,9 @@
+package blackjack.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TableConflictException extends DomainException {
+    public TableConflictException(String message) {
+        super(HttpStatus.CONFLICT, message + ". ");
+    }
+}
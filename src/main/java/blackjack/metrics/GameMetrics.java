@@ -0,0 +1,133 @@
+package blackjack.metrics;
+
+import blackjack.model.Game;
+import blackjack.model.enums.Participant;
+import blackjack.rules.BlackjackRules;
+import blackjack.service.GameSessionStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Game counters and the timers wrapped around reactive service and repository calls.
+ * A timer runs from subscription to termination, so it measures the call itself and
+ * not just the assembly of the pipeline.
+ */
+@Component
+public class GameMetrics {
+
+    public static final String SERVICE_TIMER = "blackjack.service";
+    public static final String REPOSITORY_TIMER = "blackjack.repository";
+
+    private final MeterRegistry registry;
+    private final Map<TimerKey, Timers> timers = new ConcurrentHashMap<>();
+    private final Map<ServiceOperation, Timers> serviceTimers = new ConcurrentHashMap<>();
+    private final Counter gamesCreated;
+    private final Counter wins;
+    private final Counter losses;
+    private final Counter ties;
+    private final Counter playerBusts;
+    private final Counter dealerBusts;
+
+    public GameMetrics(MeterRegistry registry, GameSessionStore gameSessionStore) {
+        this.registry = registry;
+        this.gamesCreated = registry.counter("blackjack.games.started");
+        this.wins = registry.counter("blackjack.games.finished", "outcome", "win");
+        this.losses = registry.counter("blackjack.games.finished", "outcome", "loss");
+        this.ties = registry.counter("blackjack.games.finished", "outcome", "tie");
+        this.playerBusts = registry.counter("blackjack.busts", "participant", "player");
+        this.dealerBusts = registry.counter("blackjack.busts", "participant", "dealer");
+        Gauge.builder("blackjack.games.active", gameSessionStore, GameSessionStore::activeGameCount)
+                .description("ACTIVE games held in memory")
+                .register(registry);
+    }
+
+    public void gameCreated() {
+        gamesCreated.increment();
+    }
+
+    public void gameFinished(Game game) {
+        if (game.getWinner() == Participant.PLAYER) {
+            wins.increment();
+        } else if (game.getWinner() == Participant.DEALER) {
+            losses.increment();
+        } else {
+            ties.increment();
+        }
+        if (BlackjackRules.isBust(BlackjackRules.handScore(game.getPlayerCards()))) {
+            playerBusts.increment();
+        } else if (BlackjackRules.isBust(BlackjackRules.handScore(game.getDealerCards()))) {
+            dealerBusts.increment();
+        }
+    }
+
+    /**
+     * The timers of a call, one per outcome, registered once and looked up by the tags
+     * afterwards. Callers on a hot path keep the result instead of looking it up per call.
+     */
+    public Timers timers(String timer, Tags tags) {
+        return timers.computeIfAbsent(new TimerKey(timer, tags), key -> new Timers(
+                register(timer, tags, "success"), register(timer, tags, "error"), register(timer, tags, "cancelled")));
+    }
+
+    public <T> Mono<T> timed(Timers timers, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return call.doFinally(signal -> sample.stop(timers.of(signal)));
+        });
+    }
+
+    public <T> Flux<T> timed(Timers timers, Flux<T> call) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return call.doFinally(signal -> sample.stop(timers.of(signal)));
+        });
+    }
+
+    public <T> Mono<T> timedService(String service, String operation, Mono<T> call) {
+        return timed(serviceTimers(service, operation), call);
+    }
+
+    public <T> Flux<T> timedService(String service, String operation, Flux<T> call) {
+        return timed(serviceTimers(service, operation), call);
+    }
+
+    // Keyed by the two strings, so a call allocates no tags to find its timers
+    private Timers serviceTimers(String service, String operation) {
+        return serviceTimers.computeIfAbsent(new ServiceOperation(service, operation),
+                key -> timers(SERVICE_TIMER, Tags.of("service", service, "operation", operation)));
+    }
+
+    private Timer register(String name, Tags tags, String outcome) {
+        return Timer.builder(name)
+                .tags(tags)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    public record Timers(Timer success, Timer error, Timer cancelled) {
+
+        Timer of(SignalType signal) {
+            return switch (signal) {
+                case ON_ERROR -> error;
+                case CANCEL -> cancelled;
+                default -> success;
+            };
+        }
+    }
+
+    private record TimerKey(String name, Tags tags) {
+    }
+
+    private record ServiceOperation(String service, String operation) {
+    }
+}
@@ -0,0 +1,58 @@
+package blackjack.metrics;
+
+import io.micrometer.core.instrument.Tags;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every reactive repository method, tagged with the datastore, the repository and
+ * the method, so Mongo and MySQL latency can be told apart from the game rules.
+ */
+@Component
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<GameMetrics> gameMetrics;
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<GameMetrics> gameMetrics) {
+        this.gameMetrics = gameMetrics;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        String store;
+        if (bean instanceof ReactiveMongoRepository<?, ?>) {
+            store = "mongo";
+        } else if (bean instanceof R2dbcRepository<?, ?>) {
+            store = "r2dbc";
+        } else {
+            return bean;
+        }
+        // The timers of each method are looked up once, not on every call
+        Map<Method, GameMetrics.Timers> timers = new ConcurrentHashMap<>();
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            Object result = invocation.proceed();
+            if (!(result instanceof Mono<?>) && !(result instanceof Flux<?>)) {
+                return result;
+            }
+            GameMetrics.Timers methodTimers = timers.computeIfAbsent(invocation.getMethod(), method -> gameMetrics.getObject()
+                    .timers(GameMetrics.REPOSITORY_TIMER, Tags.of("store", store, "repository", beanName, "method", method.getName())));
+            if (result instanceof Mono<?> mono) {
+                return gameMetrics.getObject().timed(methodTimers, mono);
+            }
+            return gameMetrics.getObject().timed(methodTimers, (Flux<?>) result);
+        });
+        return proxyFactory.getProxy();
+    }
+}
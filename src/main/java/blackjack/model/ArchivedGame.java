@@ -0,0 +1,42 @@
+package blackjack.model;
+
+import blackjack.model.enums.Participant;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A finished game moved out of the games collection, without its deck or anything else
+ * needed only while the game is in play. Expires after the configured archive TTL.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "game_history")
+public class ArchivedGame {
+
+    // Same id as the game, so archiving the same game twice overwrites it
+    @Id
+    private String id;
+
+    private int playerId;
+
+    private CardPile playerCards;
+
+    private CardPile dealerCards;
+
+    private int playerScore;
+
+    private int dealerScore;
+
+    private Participant winner;
+
+    private int points;
+
+    private Instant createdAt;
+
+    private Instant finishedAt;
+}
@@ -1,16 +1,16 @@
 package blackjack.model;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
 import lombok.ToString;
-import java.util.ArrayList;
 import java.util.List;
 
 @Data
 @Getter
 @ToString
-@AllArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class Card {
 
     public enum Suit {
@@ -36,16 +36,42 @@ public class Card {
         }
     }
 
+    private static final Suit[] SUITS = Suit.values();
+    private static final Value[] VALUES = Value.values();
+
+    public static final int DECK_SIZE = SUITS.length * VALUES.length;
+
+    // Flyweights indexed by card code, every Card in the application is one of these
+    private static final Card[] CARDS = new Card[DECK_SIZE];
+
+    static {
+        for (Suit suit : SUITS) {
+            for (Value value : VALUES) {
+                CARDS[code(suit, value)] = new Card(suit, value);
+            }
+        }
+    }
+
     private final Suit suit;
     private final Value value;
 
+    public static Card of(int code) {
+        return CARDS[code];
+    }
+
+    public static Card of(Suit suit, Value value) {
+        return CARDS[code(suit, value)];
+    }
+
+    public byte code() {
+        return (byte) code(suit, value);
+    }
+
+    private static int code(Suit suit, Value value) {
+        return suit.ordinal() * VALUES.length + value.ordinal();
+    }
+
     public static List<Card> generateDeck() {
-        List<Card> deck = new ArrayList<>();
-        for (Suit suit : Suit.values()) {
-            for (Value value : Value.values()) {
-                deck.add(new Card(suit, value));
-            }
-        }
-        return deck;
+        return List.of(CARDS);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,130 @@
+package blackjack.model;
+
+import blackjack.exception.DeckEmptyException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Ordered run of cards stored as one byte per card code (see {@link Card#code()}).
+ * Cards are drawn from the front by advancing a cursor and added at the back,
+ * so the same type backs the deck as well as the player and dealer hands.
+ */
+public class CardPile implements Iterable<Card> {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private byte[] codes;
+    private int cursor;
+    private int size;
+
+    public CardPile() {
+        this(new byte[DEFAULT_CAPACITY], 0, 0);
+    }
+
+    public CardPile(byte[] codes, int cursor, int size) {
+        if (cursor < 0 || cursor > size || size > codes.length) {
+            throw new IllegalArgumentException("Invalid card pile bounds");
+        }
+        this.codes = codes;
+        this.cursor = cursor;
+        this.size = size;
+    }
+
+    public static CardPile of(Card... cards) {
+        return of(Arrays.asList(cards));
+    }
+
+    public static CardPile of(Collection<Card> cards) {
+        CardPile pile = new CardPile(new byte[Math.max(cards.size(), DEFAULT_CAPACITY)], 0, 0);
+        cards.forEach(pile::add);
+        return pile;
+    }
+
+    public Card draw() {
+        if (isEmpty()) {
+            throw DeckEmptyException.INSTANCE;
+        }
+        return Card.of(codes[cursor++]);
+    }
+
+    public void add(Card card) {
+        if (size == codes.length) {
+            codes = Arrays.copyOf(codes, codes.length * 2);
+        }
+        codes[size++] = card.code();
+    }
+
+    public int remaining() {
+        return size - cursor;
+    }
+
+    public boolean isEmpty() {
+        return cursor == size;
+    }
+
+    public int getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Returns every card code of the pile, including the ones already drawn.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(codes, size);
+    }
+
+    public CardPile copy() {
+        return new CardPile(Arrays.copyOf(codes, Math.max(size, DEFAULT_CAPACITY)), cursor, size);
+    }
+
+    public List<Card> toList() {
+        List<Card> cards = new ArrayList<>(remaining());
+        forEach(cards::add);
+        return cards;
+    }
+
+    @Override
+    public Iterator<Card> iterator() {
+        return new Iterator<>() {
+            private int next = cursor;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Card next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return Card.of(codes[next++]);
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CardPile other)) return false;
+        return Arrays.equals(codes, cursor, size, other.codes, other.cursor, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = cursor; i < size; i++) {
+            hash = 31 * hash + codes[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+}
@@ -5,7 +5,8 @@ import blackjack.model.enums.Participant;
 import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
-import java.util.Deque;
+
+import java.time.Instant;
 
 @Data
 @Builder(toBuilder = true)
@@ -17,11 +18,11 @@ public class Game {
     @Id
     private String id;
 
-    private Player player;
+    private int playerId;
 
-    private Deque<Card> playerCards;
+    private CardPile playerCards;
 
-    private Deque<Card> dealerCards;
+    private CardPile dealerCards;
 
     private GameStatus gameStatus;
 
@@ -29,6 +30,19 @@ public class Game {
 
     private Card hiddenCard;
 
-    private Deque<Card> deck;
+    private Shoe deck;
+
+    // Points awarded to the player when the game finished
+    private int points;
+
+    // Whether those points have been written to the player table
+    private boolean settled;
+
+    private Instant createdAt;
+
+    private Instant finishedAt;
+
+    // Incremented by every move, guards concurrent moves in memory and in Mongo
+    private long version;
 
 }
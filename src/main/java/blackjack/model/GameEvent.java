@@ -0,0 +1,76 @@
+package blackjack.model;
+
+import blackjack.model.enums.GameEventType;
+import blackjack.model.enums.Participant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One change to a game, as recorded in its journal. Only the fields of its type are set,
+ * so a HIT or a dealer draw is the event type and one card code.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class GameEvent {
+
+    private GameEventType type;
+
+    // The card drawn by a HIT or a DEALER_DRAW
+    private Card card;
+
+    // DEALT: the game as dealt, with the shoe the game draws from
+    private Integer playerId;
+
+    private CardPile playerCards;
+
+    private CardPile dealerCards;
+
+    private Card hiddenCard;
+
+    // DEALT and SHUFFLED
+    private Shoe deck;
+
+    // SETTLED
+    private Participant winner;
+
+    private Integer points;
+
+    public static GameEvent dealt(Game game) {
+        return GameEvent.builder()
+                .type(GameEventType.DEALT)
+                .playerId(game.getPlayerId())
+                .playerCards(game.getPlayerCards())
+                .dealerCards(game.getDealerCards())
+                .hiddenCard(game.getHiddenCard())
+                .deck(game.getDeck().copy())
+                .build();
+    }
+
+    public static GameEvent hit(Card card) {
+        return GameEvent.builder().type(GameEventType.HIT).card(card).build();
+    }
+
+    public static GameEvent stand() {
+        return GameEvent.builder().type(GameEventType.STAND).build();
+    }
+
+    public static GameEvent dealerDraw(Card card) {
+        return GameEvent.builder().type(GameEventType.DEALER_DRAW).card(card).build();
+    }
+
+    public static GameEvent shuffled(Shoe deck) {
+        return GameEvent.builder().type(GameEventType.SHUFFLED).deck(deck.copy()).build();
+    }
+
+    public static GameEvent settled(Game game) {
+        return GameEvent.builder()
+                .type(GameEventType.SETTLED)
+                .winner(game.getWinner())
+                .points(game.getPoints())
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package blackjack.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The events of one committed move, or of the deal, which took the game to
+ * {@code version}. There is at most one entry per game and version, so a second move
+ * committed from the same version is rejected.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "game_journal")
+public class GameJournalEntry {
+
+    @Id
+    private String id;
+
+    private String gameId;
+
+    private long version;
+
+    private Instant at;
+
+    private List<GameEvent> events;
+}
@@ -0,0 +1,26 @@
+package blackjack.model;
+
+import blackjack.model.enums.Participant;
+import blackjack.model.enums.SeatStatus;
+import lombok.*;
+
+/**
+ * One player's hand in the current round of a table.
+ */
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class Seat {
+
+    private int playerId;
+
+    private CardPile cards;
+
+    private SeatStatus status;
+
+    // Set for every seat when the dealer has played
+    private Participant winner;
+
+    private int points;
+}
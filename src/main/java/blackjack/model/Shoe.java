@@ -0,0 +1,138 @@
+package blackjack.model;
+
+import blackjack.exception.DeckEmptyException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Shuffled decks dealt from the front up to the cut card. Every game and every table deals
+ * from shoes of its own, so its cards can be checked against its journal alone. The order
+ * of the cards follows from the seed of the shuffle, so a shoe is stored as its seed, decks,
+ * cut card and the count of cards dealt, a few bytes instead of one per card, and shuffled
+ * again from the seed when read. Copies share the shuffled cards, which never change.
+ */
+public final class Shoe implements Iterable<Card> {
+
+    private final long seed;
+    private final int decks;
+    private final int cutCard;
+    private final byte[] codes;
+    private int dealt;
+
+    public Shoe(long seed, int decks, int cutCard, int dealt) {
+        this(seed, decks, cutCard, shuffle(seed, decks), dealt);
+    }
+
+    private Shoe(long seed, int decks, int cutCard, byte[] codes, int dealt) {
+        if (cutCard > codes.length || dealt < 0 || dealt > cutCard) {
+            throw new IllegalArgumentException("Invalid shoe bounds");
+        }
+        this.seed = seed;
+        this.decks = decks;
+        this.cutCard = cutCard;
+        this.codes = codes;
+        this.dealt = dealt;
+    }
+
+    private static byte[] shuffle(long seed, int decks) {
+        byte[] codes = new byte[decks * Card.DECK_SIZE];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = (byte) (i % Card.DECK_SIZE);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = codes.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte tmp = codes[i];
+            codes[i] = codes[j];
+            codes[j] = tmp;
+        }
+        return codes;
+    }
+
+    public Card draw() {
+        if (isEmpty()) {
+            throw DeckEmptyException.INSTANCE;
+        }
+        return Card.of(codes[dealt++]);
+    }
+
+    // Cards behind the cut card are never dealt
+    public boolean isEmpty() {
+        return dealt == cutCard;
+    }
+
+    public int remaining() {
+        return cutCard - dealt;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getDecks() {
+        return decks;
+    }
+
+    public int getCutCard() {
+        return cutCard;
+    }
+
+    public int getDealt() {
+        return dealt;
+    }
+
+    public Shoe copy() {
+        return new Shoe(seed, decks, cutCard, codes, dealt);
+    }
+
+    /**
+     * Returns the cards still to be dealt before the cut card.
+     */
+    public List<Card> toList() {
+        List<Card> cards = new ArrayList<>(remaining());
+        forEach(cards::add);
+        return cards;
+    }
+
+    @Override
+    public Iterator<Card> iterator() {
+        return new Iterator<>() {
+            private int next = dealt;
+
+            @Override
+            public boolean hasNext() {
+                return next < cutCard;
+            }
+
+            @Override
+            public Card next() {
+                if (next >= cutCard) {
+                    throw new NoSuchElementException();
+                }
+                return Card.of(codes[next++]);
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Shoe other)) return false;
+        return seed == other.seed && decks == other.decks && cutCard == other.cutCard && dealt == other.dealt;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(seed, decks, cutCard, dealt);
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+}
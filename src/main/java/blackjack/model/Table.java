@@ -0,0 +1,49 @@
+package blackjack.model;
+
+import blackjack.model.enums.GameStatus;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Up to seven seats playing rounds against one dealer hand from one shared shoe, stored as
+ * a single document. A round is ACTIVE until every seat has stood or bust, then the dealer
+ * plays once for all seats and the round is FINISHED. The next round is dealt from the same
+ * shoe once the points of the last one are settled.
+ */
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "tables")
+public class Table {
+
+    @Id
+    private String id;
+
+    private List<Seat> seats;
+
+    private CardPile dealerCards;
+
+    private Card hiddenCard;
+
+    private Shoe deck;
+
+    private GameStatus tableStatus;
+
+    // Rounds dealt at this table, from 1
+    private int round;
+
+    // Whether the points of the finished round have been written to the player table
+    private boolean settled;
+
+    private Instant createdAt;
+
+    private Instant finishedAt;
+
+    // Incremented by every change, guards writes from another instance
+    private long version;
+}
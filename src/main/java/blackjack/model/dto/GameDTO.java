@@ -8,7 +8,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.Deque;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -17,8 +17,9 @@ import java.util.Deque;
 public class GameDTO {
     private String id;
     private PlayerDTO playerDTO;
-    private Deque<Card> playerCards;
-    private Deque<Card> dealerCards;
+    private List<Card> playerCards;
+    private List<Card> dealerCards;
     private GameStatus gameStatus;
     private Participant winner;
+    private long version;
 }
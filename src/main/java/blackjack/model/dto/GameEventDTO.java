@@ -0,0 +1,32 @@
+package blackjack.model.dto;
+
+import blackjack.model.Card;
+import blackjack.model.enums.GameEventType;
+import blackjack.model.enums.Participant;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GameEventDTO {
+    private long version;
+    private Instant at;
+    private GameEventType type;
+    private Card card;
+    private Integer playerId;
+    private List<Card> playerCards;
+    private List<Card> dealerCards;
+    private Card hiddenCard;
+    private List<Card> deck;
+    private Participant winner;
+    private Integer points;
+}
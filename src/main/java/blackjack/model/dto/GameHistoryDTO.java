@@ -0,0 +1,27 @@
+package blackjack.model.dto;
+
+import blackjack.model.Card;
+import blackjack.model.enums.Participant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GameHistoryDTO {
+    private String id;
+    private List<Card> playerCards;
+    private List<Card> dealerCards;
+    private int playerScore;
+    private int dealerScore;
+    private Participant winner;
+    private int points;
+    private Instant createdAt;
+    private Instant finishedAt;
+}
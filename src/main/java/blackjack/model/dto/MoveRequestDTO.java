@@ -0,0 +1,19 @@
+package blackjack.model.dto;
+
+import blackjack.model.enums.MoveType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MoveRequestDTO {
+    private String gameId;
+    private MoveType move;
+    // Like If-Match and Idempotency-Key of a single move, both optional
+    private Long expectedVersion;
+    private String idempotencyKey;
+}
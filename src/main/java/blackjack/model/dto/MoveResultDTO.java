@@ -0,0 +1,22 @@
+package blackjack.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MoveResultDTO {
+    // Position of the move in the batch, results arrive in commit order
+    private int index;
+    private String gameId;
+    // The status a single move would have answered with
+    private int status;
+    private GameDTO game;
+    private String error;
+}
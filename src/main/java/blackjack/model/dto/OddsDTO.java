@@ -0,0 +1,25 @@
+package blackjack.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OddsDTO {
+    private String gameId;
+    private double dealerBust;
+    // Probability of each final dealer total that does not bust
+    private Map<Integer, Double> dealerTotals;
+    private double standWin;
+    private double standTie;
+    // HIT means taking exactly one card and then standing
+    private double hitWin;
+    private double hitTie;
+    private double hitBust;
+}
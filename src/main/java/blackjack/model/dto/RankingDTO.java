@@ -0,0 +1,17 @@
+package blackjack.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RankingDTO {
+    private int rank;
+    private int id;
+    private String name;
+    private int totalPoints;
+}
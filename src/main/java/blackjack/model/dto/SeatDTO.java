@@ -0,0 +1,25 @@
+package blackjack.model.dto;
+
+import blackjack.model.Card;
+import blackjack.model.enums.Participant;
+import blackjack.model.enums.SeatStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SeatDTO {
+    private int seat;
+    private int playerId;
+    private List<Card> cards;
+    private SeatStatus status;
+    // NONE and 0 until the dealer has played
+    private Participant winner;
+    private int points;
+}
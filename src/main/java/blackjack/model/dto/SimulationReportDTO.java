@@ -0,0 +1,17 @@
+package blackjack.model.dto;
+
+import blackjack.simulation.SimulationStats;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationReportDTO {
+    private long handsRequested;
+    private boolean done;
+    private SimulationStats stats;
+}
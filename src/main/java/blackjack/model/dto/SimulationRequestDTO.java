@@ -0,0 +1,21 @@
+package blackjack.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationRequestDTO {
+    private long hands;
+    // Shoe settings, the live blackjack.shoe settings when not given
+    private Integer decks;
+    private Double penetration;
+    // The simulated player hits below this score
+    @Builder.Default
+    private int standOn = 17;
+    private Long seed;
+}
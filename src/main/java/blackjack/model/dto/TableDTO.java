@@ -0,0 +1,24 @@
+package blackjack.model.dto;
+
+import blackjack.model.Card;
+import blackjack.model.enums.GameStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TableDTO {
+    private String id;
+    private int round;
+    private List<SeatDTO> seats;
+    private List<Card> dealerCards;
+    private GameStatus tableStatus;
+    private boolean settled;
+    private long version;
+}
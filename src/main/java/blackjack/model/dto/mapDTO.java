@@ -1,26 +1,110 @@
 package blackjack.model.dto;
 
+import blackjack.model.ArchivedGame;
+import blackjack.model.Card;
+import blackjack.model.CardPile;
 import blackjack.model.Game;
+import blackjack.model.GameEvent;
+import blackjack.model.GameJournalEntry;
 import blackjack.model.Player;
+import blackjack.model.Seat;
+import blackjack.model.Shoe;
+import blackjack.model.Table;
+import blackjack.model.enums.GameStatus;
+import blackjack.model.enums.PlayerStatus;
+import blackjack.rules.Outcome;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class mapDTO {
 
-    public static GameDTO toGameDTO(Game game) {
+    /**
+     * {@code player} is the current state of the game's player, null if it no longer exists.
+     */
+    public static GameDTO toGameDTO(Game game, Player player) {
         return GameDTO.builder()
                 .id(game.getId())
-                .playerDTO(toPlayerDTO(game.getPlayer()))
-                .playerCards(game.getPlayerCards())
-                .dealerCards(game.getDealerCards())
+                .playerDTO(toPlayerDTO(game, player))
+                .playerCards(game.getPlayerCards().toList())
+                .dealerCards(game.getDealerCards().toList())
                 .gameStatus(game.getGameStatus())
+                .version(game.getVersion())
+                .build();
+    }
+
+    public static TableDTO toTableDTO(Table table) {
+        List<SeatDTO> seats = new ArrayList<>(table.getSeats().size());
+        for (int i = 0; i < table.getSeats().size(); i++) {
+            Seat seat = table.getSeats().get(i);
+            seats.add(SeatDTO.builder()
+                    .seat(i)
+                    .playerId(seat.getPlayerId())
+                    .cards(seat.getCards().toList())
+                    .status(seat.getStatus())
+                    .winner(seat.getWinner())
+                    .points(seat.getPoints())
+                    .build());
+        }
+        return TableDTO.builder()
+                .id(table.getId())
+                .round(table.getRound())
+                .seats(seats)
+                .dealerCards(table.getDealerCards().toList())
+                .tableStatus(table.getTableStatus())
+                .settled(table.isSettled())
+                .version(table.getVersion())
+                .build();
+    }
+
+    public static GameHistoryDTO toGameHistoryDTO(ArchivedGame game) {
+        return GameHistoryDTO.builder()
+                .id(game.getId())
+                .playerCards(game.getPlayerCards().toList())
+                .dealerCards(game.getDealerCards().toList())
+                .playerScore(game.getPlayerScore())
+                .dealerScore(game.getDealerScore())
+                .winner(game.getWinner())
+                .points(game.getPoints())
+                .createdAt(game.getCreatedAt())
+                .finishedAt(game.getFinishedAt())
                 .build();
     }
 
-    private static PlayerDTO toPlayerDTO(Player playerPlaying) {
+    public static GameEventDTO toGameEventDTO(GameJournalEntry entry, GameEvent event) {
+        return GameEventDTO.builder()
+                .version(entry.getVersion())
+                .at(entry.getAt())
+                .type(event.getType())
+                .card(event.getCard())
+                .playerId(event.getPlayerId())
+                .playerCards(toList(event.getPlayerCards()))
+                .dealerCards(toList(event.getDealerCards()))
+                .hiddenCard(event.getHiddenCard())
+                .deck(toList(event.getDeck()))
+                .winner(event.getWinner())
+                .points(event.getPoints())
+                .build();
+    }
+
+    private static List<Card> toList(CardPile pile) {
+        return pile == null ? null : pile.toList();
+    }
+
+    private static List<Card> toList(Shoe shoe) {
+        return shoe == null ? null : shoe.toList();
+    }
+
+    private static PlayerDTO toPlayerDTO(Game game, Player player) {
+        PlayerStatus status = game.getGameStatus() == GameStatus.FINISHED ? Outcome.of(game.getWinner()).getPlayerStatus() : null;
+        if (player == null) {
+            return PlayerDTO.builder().id(game.getPlayerId()).status(status).build();
+        }
         return PlayerDTO.builder()
-                .id(playerPlaying.getId())
-                .name(playerPlaying.getName())
-                .totalPoints(playerPlaying.getTotalPoints())
-                .status(playerPlaying.getStatus())
+                .id(player.getId())
+                .name(player.getName())
+                .totalPoints(player.getTotalPoints())
+                .status(status)
                 .build();
     }
 }
@@ -0,0 +1,13 @@
+package blackjack.model.enums;
+
+public enum GameEventType {
+    // Opening hands, hidden card and shoe of a new game
+    DEALT,
+    HIT,
+    // The player stands, which reveals the dealer's hidden card
+    STAND,
+    DEALER_DRAW,
+    // The shoe reached its cut card and was replaced mid-game
+    SHUFFLED,
+    SETTLED
+}
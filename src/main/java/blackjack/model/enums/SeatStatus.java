@@ -0,0 +1,7 @@
+package blackjack.model.enums;
+
+public enum SeatStatus {
+    PLAYING,
+    STOOD,
+    BUST
+}
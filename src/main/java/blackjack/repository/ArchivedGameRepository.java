@@ -0,0 +1,7 @@
+package blackjack.repository;
+
+import blackjack.model.ArchivedGame;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface ArchivedGameRepository extends ReactiveMongoRepository<ArchivedGame, String>, ArchivedGameRepositoryCustom {
+}
@@ -0,0 +1,28 @@
+package blackjack.repository;
+
+import blackjack.model.ArchivedGame;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+
+public interface ArchivedGameRepositoryCustom {
+
+    /**
+     * Writes the archived games in one unordered bulk write, replacing any game archived
+     * before, so a batch interrupted before its games were deleted can be archived again.
+     */
+    Mono<Void> upsertAll(Collection<ArchivedGame> games);
+
+    /**
+     * A page of a player's games, newest first, starting after the game {@code before}
+     * (the last game of the previous page) or from the newest game when it is null.
+     */
+    Flux<ArchivedGame> findHistory(int playerId, String before, int limit);
+
+    /**
+     * Creates the history index and the TTL index, changing the TTL of an existing index.
+     */
+    Mono<Void> ensureIndexes(Duration ttl);
+}
@@ -0,0 +1,73 @@
+package blackjack.repository;
+
+import blackjack.model.ArchivedGame;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class ArchivedGameRepositoryCustomImpl implements ArchivedGameRepositoryCustom {
+
+    private static final String TTL_INDEX = "finishedAt_ttl";
+    private static final String HISTORY_INDEX = "playerId_id";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> upsertAll(Collection<ArchivedGame> games) {
+        if (games.isEmpty()) {
+            return Mono.empty();
+        }
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, ArchivedGame.class);
+        for (ArchivedGame game : games) {
+            bulk.replaceOne(Query.query(Criteria.where("_id").is(game.getId())), game, FindAndReplaceOptions.options().upsert());
+        }
+        return bulk.execute().then();
+    }
+
+    @Override
+    public Flux<ArchivedGame> findHistory(int playerId, String before, int limit) {
+        // Game ids are ObjectIds generated when the game is created, so they sort by creation
+        Criteria criteria = Criteria.where("playerId").is(playerId);
+        if (before != null) {
+            criteria = criteria.and("_id").lt(new ObjectId(before));
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "_id"))
+                .limit(limit);
+        return mongoTemplate.find(query, ArchivedGame.class);
+    }
+
+    @Override
+    public Mono<Void> ensureIndexes(Duration ttl) {
+        Mono<String> history = mongoTemplate.indexOps(ArchivedGame.class)
+                .ensureIndex(new Index()
+                        .on("playerId", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.DESC)
+                        .named(HISTORY_INDEX));
+        // ensureIndex fails when the index exists with another TTL, collMod changes it in place
+        Mono<Document> expiry = mongoTemplate.indexOps(ArchivedGame.class)
+                .ensureIndex(new Index()
+                        .on("finishedAt", Sort.Direction.ASC)
+                        .named(TTL_INDEX)
+                        .expire(ttl))
+                .map(name -> new Document("index", name))
+                .onErrorResume(error -> mongoTemplate.executeCommand(new Document("collMod", mongoTemplate.getCollectionName(ArchivedGame.class))
+                        .append("index", new Document("name", TTL_INDEX)
+                                .append("expireAfterSeconds", ttl.toSeconds()))));
+        return history.then(expiry).then();
+    }
+}
@@ -0,0 +1,13 @@
+package blackjack.repository;
+
+import blackjack.model.GameJournalEntry;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface GameJournalRepository extends ReactiveMongoRepository<GameJournalEntry, String>, GameJournalRepositoryCustom {
+
+    Flux<GameJournalEntry> findByGameIdAndVersionGreaterThanOrderByVersionAsc(String gameId, long version);
+
+    Mono<Void> deleteByGameId(String gameId);
+}
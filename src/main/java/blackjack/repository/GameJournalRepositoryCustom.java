@@ -0,0 +1,25 @@
+package blackjack.repository;
+
+import blackjack.model.GameJournalEntry;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+public interface GameJournalRepositoryCustom {
+
+    /**
+     * Creates the unique index on game and version, which rejects a second move from the
+     * same version, and the TTL index, changing the TTL of an existing index. Fails if the
+     * unique index is missing after.
+     */
+    Mono<Void> ensureIndexes(Duration ttl);
+
+    /**
+     * Inserts the entries with one unordered bulk write, so a duplicate does not stop the
+     * entries after it. Completes with the positions of the entries rejected as duplicates,
+     * fails if any entry failed for another reason.
+     */
+    Mono<Set<Integer>> insertAll(List<GameJournalEntry> entries);
+}
@@ -0,0 +1,79 @@
+package blackjack.repository;
+
+import blackjack.model.GameJournalEntry;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class GameJournalRepositoryCustomImpl implements GameJournalRepositoryCustom {
+
+    private static final String TTL_INDEX = "at_ttl";
+    private static final String VERSION_INDEX = "gameId_version";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> ensureIndexes(Duration ttl) {
+        Mono<String> versions = mongoTemplate.indexOps(GameJournalEntry.class)
+                .ensureIndex(new Index()
+                        .on("gameId", Sort.Direction.ASC)
+                        .on("version", Sort.Direction.ASC)
+                        .unique()
+                        .named(VERSION_INDEX));
+        // ensureIndex fails when the index exists with another TTL, collMod changes it in place
+        Mono<Document> expiry = mongoTemplate.indexOps(GameJournalEntry.class)
+                .ensureIndex(new Index()
+                        .on("at", Sort.Direction.ASC)
+                        .named(TTL_INDEX)
+                        .expire(ttl))
+                .map(name -> new Document("index", name))
+                .onErrorResume(error -> mongoTemplate.executeCommand(new Document("collMod", mongoTemplate.getCollectionName(GameJournalEntry.class))
+                        .append("index", new Document("name", TTL_INDEX)
+                                .append("expireAfterSeconds", ttl.toSeconds()))));
+        // The unique index is what rejects a second move from the same version
+        Mono<Void> check = mongoTemplate.indexOps(GameJournalEntry.class).getIndexInfo()
+                .filter(index -> index.getName().equals(VERSION_INDEX) && index.isUnique())
+                .hasElements()
+                .flatMap(present -> present
+                        ? Mono.<Void>empty()
+                        : Mono.error(new IllegalStateException("Collection " + mongoTemplate.getCollectionName(GameJournalEntry.class)
+                                + " lacks the unique index " + VERSION_INDEX)));
+        return versions.then(expiry).then(check);
+    }
+
+    @Override
+    public Mono<Set<Integer>> insertAll(List<GameJournalEntry> entries) {
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, GameJournalEntry.class)
+                .insert(entries)
+                .execute()
+                .map(result -> Set.<Integer>of())
+                .onErrorResume(error -> duplicates(error) != null, error -> Mono.just(duplicates(error)));
+    }
+
+    // The translated exception keeps the driver's bulk write exception as its cause
+    private static Set<Integer> duplicates(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException bulk) {
+                boolean onlyDuplicates = bulk.getWriteConcernError() == null && bulk.getWriteErrors().stream()
+                        .allMatch(writeError -> ErrorCategory.fromErrorCode(writeError.getCode()) == ErrorCategory.DUPLICATE_KEY);
+                return onlyDuplicates
+                        ? bulk.getWriteErrors().stream().map(BulkWriteError::getIndex).collect(Collectors.toSet())
+                        : null;
+            }
+        }
+        return null;
+    }
+}
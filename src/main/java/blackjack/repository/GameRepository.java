@@ -1,11 +1,15 @@
 package blackjack.repository;
 
 import blackjack.model.Game;
+import blackjack.model.enums.GameStatus;
 import com.mongodb.lang.NonNull;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-public interface GameRepository extends ReactiveMongoRepository<Game, String> {
+public interface GameRepository extends ReactiveMongoRepository<Game, String>, GameRepositoryCustom {
     @NonNull
     Mono<Game> findById(@NonNull String gameId);
-}
\ No newline at end of file
+
+    Flux<Game> findByGameStatusAndSettledFalse(GameStatus gameStatus);
+}
@@ -0,0 +1,53 @@
+package blackjack.repository;
+
+import blackjack.model.Game;
+import blackjack.model.Shoe;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+public interface GameRepositoryCustom {
+
+    /**
+     * Writes the mutable fields of an ACTIVE game in one atomic findAndModify, only if the
+     * stored game is still ACTIVE at {@code expectedVersion}. Completes empty on a conflict.
+     */
+    Mono<Game> updateIfVersion(Game game, long expectedVersion);
+
+    /**
+     * Flags finished games whose points have been written to the player table.
+     */
+    Mono<Void> markSettled(Collection<String> gameIds);
+
+    /**
+     * Replaces the player embedded by games written before games referenced players by id
+     * with that player's id. Completes with the number of games rewritten.
+     */
+    Mono<Long> migratePlayerReferences();
+
+    /**
+     * Rewrites the hands and hidden card of games written before cards were stored as byte
+     * codes, when they were arrays of suit and value documents, in the binary form. A game
+     * still in play gets a fresh shoe from {@code shoes} in place of its old deck, the deck of
+     * a finished game is dropped. Completes with the number of games rewritten.
+     */
+    Mono<Long> migrateCardEncoding(Supplier<Shoe> shoes);
+
+    /**
+     * Finished games whose points are settled, ready to be archived. The deck and the
+     * hidden card are not read.
+     */
+    Flux<Game> findSettled(int limit);
+
+    /**
+     * Removes archived games, only if they are still finished and settled.
+     */
+    Mono<Long> deleteSettled(Collection<String> gameIds);
+
+    /**
+     * Creates the indexes of the games collection, and fails if one of them is missing after.
+     */
+    Mono<Void> ensureIndexes();
+}
@@ -0,0 +1,170 @@
+package blackjack.repository;
+
+import blackjack.model.Card;
+import blackjack.model.CardPile;
+import blackjack.model.Game;
+import blackjack.model.Shoe;
+import blackjack.model.enums.GameStatus;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class GameRepositoryCustomImpl implements GameRepositoryCustom {
+
+    private static final String ACTIVE_INDEX = "playerId_active";
+    private static final String SETTLEMENT_INDEX = "gameStatus_settled";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Game> updateIfVersion(Game game, long expectedVersion) {
+        Query query = Query.query(Criteria.where("_id").is(game.getId())
+                .and("version").is(expectedVersion)
+                .and("gameStatus").is(GameStatus.ACTIVE));
+        Update update = new Update()
+                .set("playerCards", game.getPlayerCards())
+                .set("dealerCards", game.getDealerCards())
+                .set("deck", game.getDeck())
+                .set("gameStatus", game.getGameStatus())
+                .set("winner", game.getWinner())
+                .set("points", game.getPoints())
+                .set("finishedAt", game.getFinishedAt())
+                .set("version", game.getVersion());
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Game.class);
+    }
+
+    @Override
+    public Mono<Void> markSettled(Collection<String> gameIds) {
+        if (gameIds.isEmpty()) {
+            return Mono.empty();
+        }
+        return mongoTemplate.updateMulti(
+                        Query.query(Criteria.where("_id").in(gameIds)),
+                        Update.update("settled", true),
+                        Game.class)
+                .then();
+    }
+
+    @Override
+    public Mono<Long> migratePlayerReferences() {
+        // Embedded entities keep their @Id as _id, fall back to id in case it was written as such
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("playerId").toValue(ConditionalOperators.ifNull("player._id").thenValueOf("player.id"))
+                .unset("player");
+        return mongoTemplate.updateMulti(Query.query(Criteria.where("player").exists(true)), update, Game.class)
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    @Override
+    public Mono<Long> migrateCardEncoding(Supplier<Shoe> shoes) {
+        Query legacy = new BasicQuery("{ $or: [ { playerCards: { $type: 'array' } },"
+                + " { dealerCards: { $type: 'array' } }, { deck: { $type: 'array' } } ] }");
+        String collection = mongoTemplate.getCollectionName(Game.class);
+        // Read as plain documents, the card converters cannot read the old form
+        return mongoTemplate.find(legacy, Document.class, collection)
+                .concatMap(document -> mongoTemplate.updateFirst(
+                        Query.query(Criteria.where("_id").is(document.get("_id"))),
+                        legacyCardsUpdate(document, shoes), Game.class))
+                .map(UpdateResult::getModifiedCount)
+                .reduce(0L, Long::sum);
+    }
+
+    // The set values are Cards, CardPiles and Shoes, written through the card converters
+    private static Update legacyCardsUpdate(Document document, Supplier<Shoe> shoes) {
+        Update update = new Update()
+                .set("playerCards", legacyPile(document.get("playerCards")))
+                .set("dealerCards", legacyPile(document.get("dealerCards")));
+        if (document.get("hiddenCard") instanceof Document hiddenCard) {
+            update.set("hiddenCard", legacyCard(hiddenCard));
+        }
+        // The order of the old deck cannot be kept as a seed, a game in play deals on from a new shoe
+        if (document.get("deck") instanceof List<?>) {
+            if (GameStatus.ACTIVE.name().equals(document.getString("gameStatus"))) {
+                update.set("deck", shoes.get());
+            } else {
+                update.unset("deck");
+            }
+        }
+        return update;
+    }
+
+    private static CardPile legacyPile(Object cards) {
+        if (!(cards instanceof List<?> list)) {
+            return new CardPile();
+        }
+        CardPile pile = new CardPile();
+        for (Object card : list) {
+            pile.add(legacyCard((Document) card));
+        }
+        return pile;
+    }
+
+    private static Card legacyCard(Document card) {
+        return Card.of(Card.Suit.valueOf(card.getString("suit")), Card.Value.valueOf(card.getString("value")));
+    }
+
+    @Override
+    public Flux<Game> findSettled(int limit) {
+        Query query = settled().limit(limit);
+        query.fields().exclude("deck", "hiddenCard");
+        return mongoTemplate.find(query, Game.class);
+    }
+
+    @Override
+    public Mono<Long> deleteSettled(Collection<String> gameIds) {
+        if (gameIds.isEmpty()) {
+            return Mono.just(0L);
+        }
+        Query query = settled().addCriteria(Criteria.where("_id").in(gameIds));
+        return mongoTemplate.remove(query, Game.class).map(DeleteResult::getDeletedCount);
+    }
+
+    @Override
+    public Mono<Void> ensureIndexes() {
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(Game.class);
+        // Games in play are few next to the finished ones waiting to be archived, so an
+        // index of them by player stays small
+        Mono<String> active = indexOps.ensureIndex(new Index()
+                .on("playerId", Sort.Direction.ASC)
+                .partial(PartialIndexFilter.of(Criteria.where("gameStatus").is(GameStatus.ACTIVE.name())))
+                .named(ACTIVE_INDEX));
+        // Recovery of unsettled games and the archiver look games up by status and settlement
+        Mono<String> settlement = indexOps.ensureIndex(new Index()
+                .on("gameStatus", Sort.Direction.ASC)
+                .on("settled", Sort.Direction.ASC)
+                .named(SETTLEMENT_INDEX));
+        List<String> expected = List.of(ACTIVE_INDEX, SETTLEMENT_INDEX);
+        return active.then(settlement)
+                .then(indexOps.getIndexInfo().map(IndexInfo::getName).collect(Collectors.toSet()))
+                .flatMap(names -> names.containsAll(expected)
+                        ? Mono.<Void>empty()
+                        : Mono.error(new IllegalStateException("Collection " + mongoTemplate.getCollectionName(Game.class)
+                                + " lacks one of the indexes " + expected + ", found " + names)));
+    }
+
+    private static Query settled() {
+        return Query.query(Criteria.where("gameStatus").is(GameStatus.FINISHED).and("settled").is(true));
+    }
+}
@@ -1,17 +1,18 @@
 package blackjack.repository;
 
 import blackjack.model.Player;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
-public interface PlayerRepository extends R2dbcRepository<Player, Integer> {
+public interface PlayerRepository extends R2dbcRepository<Player, Integer>, PlayerRepositoryCustom {
     Mono<Player> findByName(String name);
     Mono<Player> findById(int id);
 
-    @Query("SELECT * FROM player ORDER BY total_points DESC")
-    Flux<Player> getRanking();
+    @Modifying
+    @Query("UPDATE player SET player_name = :name WHERE id = :id")
+    Mono<Integer> rename(int id, String name);
 }
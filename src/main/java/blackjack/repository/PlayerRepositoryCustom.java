@@ -0,0 +1,19 @@
+package blackjack.repository;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+public interface PlayerRepositoryCustom {
+
+    /**
+     * Applies every points delta, keyed by player id, as one batched atomic increment.
+     */
+    Mono<Void> addPointsBatch(Map<Integer, Integer> deltas);
+
+    /**
+     * Fails if the player table lacks the unique name index or the points index. Both are
+     * created by the migrations in {@code db/migration}.
+     */
+    Mono<Void> verifyIndexes();
+}
@@ -0,0 +1,54 @@
+package blackjack.repository;
+
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class PlayerRepositoryCustomImpl implements PlayerRepositoryCustom {
+
+    private static final String ADD_POINTS = "UPDATE player SET total_points = total_points + ? WHERE id = ?";
+    private static final String INDEXES = "SELECT index_name AS name, MIN(non_unique) AS non_unique FROM information_schema.statistics "
+            + "WHERE table_schema = DATABASE() AND table_name = 'player' GROUP BY index_name";
+    private static final String NAME_INDEX = "uk_player_name";
+    private static final String POINTS_INDEX = "ix_player_total_points";
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Void> addPointsBatch(Map<Integer, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(ADD_POINTS);
+            boolean first = true;
+            for (Map.Entry<Integer, Integer> delta : deltas.entrySet()) {
+                if (!first) {
+                    statement.add();
+                }
+                statement.bind(0, delta.getValue()).bind(1, delta.getKey());
+                first = false;
+            }
+            return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+        }).then();
+    }
+
+    // Index names map to whether the index is unique
+    @Override
+    public Mono<Void> verifyIndexes() {
+        return databaseClient.sql(INDEXES)
+                .map(row -> Map.entry(row.get("name", String.class), row.get("non_unique", Long.class) == 0))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .flatMap(indexes -> Boolean.TRUE.equals(indexes.get(NAME_INDEX)) && indexes.containsKey(POINTS_INDEX)
+                        ? Mono.<Void>empty()
+                        : Mono.error(new IllegalStateException("Table player lacks the unique index " + NAME_INDEX
+                                + " or the index " + POINTS_INDEX + ", found " + indexes.keySet())));
+    }
+}
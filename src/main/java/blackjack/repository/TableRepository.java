@@ -0,0 +1,11 @@
+package blackjack.repository;
+
+import blackjack.model.Table;
+import blackjack.model.enums.GameStatus;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface TableRepository extends ReactiveMongoRepository<Table, String>, TableRepositoryCustom {
+
+    Flux<Table> findByTableStatusAndSettledFalse(GameStatus tableStatus);
+}
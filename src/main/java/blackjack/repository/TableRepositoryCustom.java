@@ -0,0 +1,13 @@
+package blackjack.repository;
+
+import blackjack.model.Table;
+import reactor.core.publisher.Mono;
+
+public interface TableRepositoryCustom {
+
+    /**
+     * Replaces the table in one atomic findAndReplace, only if the stored table is still at
+     * {@code expectedVersion}. Completes empty on a conflict.
+     */
+    Mono<Table> updateIfVersion(Table table, long expectedVersion);
+}
@@ -0,0 +1,22 @@
+package blackjack.repository;
+
+import blackjack.model.Table;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class TableRepositoryCustomImpl implements TableRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Table> updateIfVersion(Table table, long expectedVersion) {
+        Query query = Query.query(Criteria.where("_id").is(table.getId())
+                .and("version").is(expectedVersion));
+        return mongoTemplate.findAndReplace(query, table, FindAndReplaceOptions.options().returnNew());
+    }
+}
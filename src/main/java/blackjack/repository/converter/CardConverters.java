@@ -0,0 +1,106 @@
+package blackjack.repository.converter;
+
+import blackjack.model.Card;
+import blackjack.model.CardPile;
+import blackjack.model.Shoe;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.util.List;
+
+/**
+ * Stores a {@link Card} as its single byte code and a {@link CardPile} as a
+ * binary blob plus the draw cursor, instead of one sub-document per card. A
+ * {@link Shoe} is stored as its seed, decks, cut card and cards dealt.
+ */
+public final class CardConverters {
+
+    static final String CARDS = "cards";
+    static final String CURSOR = "cursor";
+    static final String SEED = "seed";
+    static final String DECKS = "decks";
+    static final String CUT_CARD = "cutCard";
+    static final String DEALT = "dealt";
+
+    private CardConverters() {
+    }
+
+    public static List<Converter<?, ?>> all() {
+        return List.of(
+                CardToIntegerConverter.INSTANCE,
+                IntegerToCardConverter.INSTANCE,
+                CardPileToDocumentConverter.INSTANCE,
+                DocumentToCardPileConverter.INSTANCE,
+                ShoeToDocumentConverter.INSTANCE,
+                DocumentToShoeConverter.INSTANCE);
+    }
+
+    @WritingConverter
+    enum CardToIntegerConverter implements Converter<Card, Integer> {
+        INSTANCE;
+
+        @Override
+        public Integer convert(Card card) {
+            return (int) card.code();
+        }
+    }
+
+    @ReadingConverter
+    enum IntegerToCardConverter implements Converter<Integer, Card> {
+        INSTANCE;
+
+        @Override
+        public Card convert(Integer code) {
+            return Card.of(code);
+        }
+    }
+
+    @WritingConverter
+    enum CardPileToDocumentConverter implements Converter<CardPile, Document> {
+        INSTANCE;
+
+        @Override
+        public Document convert(CardPile pile) {
+            return new Document(CARDS, new Binary(pile.toByteArray()))
+                    .append(CURSOR, pile.getCursor());
+        }
+    }
+
+    @ReadingConverter
+    enum DocumentToCardPileConverter implements Converter<Document, CardPile> {
+        INSTANCE;
+
+        @Override
+        public CardPile convert(Document document) {
+            byte[] codes = document.get(CARDS, Binary.class).getData();
+            return new CardPile(codes, document.getInteger(CURSOR, 0), codes.length);
+        }
+    }
+
+    @WritingConverter
+    enum ShoeToDocumentConverter implements Converter<Shoe, Document> {
+        INSTANCE;
+
+        @Override
+        public Document convert(Shoe shoe) {
+            return new Document(SEED, shoe.getSeed())
+                    .append(DECKS, shoe.getDecks())
+                    .append(CUT_CARD, shoe.getCutCard())
+                    .append(DEALT, shoe.getDealt());
+        }
+    }
+
+    @ReadingConverter
+    enum DocumentToShoeConverter implements Converter<Document, Shoe> {
+        INSTANCE;
+
+        @Override
+        public Shoe convert(Document document) {
+            return new Shoe(document.getLong(SEED), document.getInteger(DECKS),
+                    document.getInteger(CUT_CARD), document.getInteger(DEALT));
+        }
+    }
+}
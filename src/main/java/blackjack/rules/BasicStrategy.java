@@ -0,0 +1,62 @@
+package blackjack.rules;
+
+/**
+ * Basic strategy for a game of HIT and STAND only, precomputed into a table indexed by
+ * the soft flag, the player's score and the dealer's up card, so a decision is one lookup.
+ * <ul>
+ *     <li>Hard 17 or more stands, 13 to 16 stands against 2 to 6, 12 stands against 4 to 6,
+ *     11 or less hits.</li>
+ *     <li>Soft 19 or more stands, soft 18 stands against 2 to 8, soft 17 or less hits.</li>
+ * </ul>
+ */
+public final class BasicStrategy implements HitStrategy {
+
+    public static final BasicStrategy INSTANCE = new BasicStrategy();
+
+    // The deck has ONE cards besides aces, an up card scores 1 to 11
+    private static final int MIN_UP_CARD = 1;
+    private static final int MAX_UP_CARD = 11;
+
+    // [soft][player score][dealer up card - 1]
+    private final boolean[][][] hits = new boolean[2][BlackjackRules.BLACKJACK + 1][MAX_UP_CARD - MIN_UP_CARD + 1];
+
+    private BasicStrategy() {
+        for (int score = 0; score <= BlackjackRules.BLACKJACK; score++) {
+            for (int upCard = MIN_UP_CARD; upCard <= MAX_UP_CARD; upCard++) {
+                hits[0][score][upCard - MIN_UP_CARD] = hardHit(score, upCard);
+                hits[1][score][upCard - MIN_UP_CARD] = softHit(score, upCard);
+            }
+        }
+    }
+
+    @Override
+    public boolean hit(int playerScore, boolean soft, int dealerUpCard) {
+        if (playerScore > BlackjackRules.BLACKJACK) {
+            return false;
+        }
+        return hits[soft ? 1 : 0][playerScore][dealerUpCard - MIN_UP_CARD];
+    }
+
+    private static boolean hardHit(int score, int upCard) {
+        if (score >= 17) {
+            return false;
+        }
+        if (score >= 13) {
+            return upCard >= 7;
+        }
+        if (score == 12) {
+            return upCard < 4 || upCard > 6;
+        }
+        return true;
+    }
+
+    private static boolean softHit(int score, int upCard) {
+        if (score >= 19) {
+            return false;
+        }
+        if (score == 18) {
+            return upCard >= 9;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,80 @@
+package blackjack.rules;
+
+import blackjack.model.Card;
+
+/**
+ * The scoring, dealer and settlement rules of the game, shared by every component that
+ * plays or evaluates hands so they cannot disagree.
+ */
+public final class BlackjackRules {
+
+    public static final int BLACKJACK = 21;
+    public static final int DEALER_STANDS_ON = 17;
+
+    private static final int SOFT_ACE_BONUS = 10;
+
+    // Lookups by card code for callers working on primitive card codes
+    private static final int[] HARD_VALUES = new int[Card.DECK_SIZE];
+    private static final boolean[] ACES = new boolean[Card.DECK_SIZE];
+
+    static {
+        for (int code = 0; code < Card.DECK_SIZE; code++) {
+            HARD_VALUES[code] = Card.of(code).getValue().getMinValue();
+            ACES[code] = Card.of(code).getValue().isAce();
+        }
+    }
+
+    private BlackjackRules() {
+    }
+
+    public static int handScore(Iterable<Card> cards) {
+        int hardTotal = 0;
+        boolean hasAce = false;
+        for (Card card : cards) {
+            hardTotal += hardValue(card.code());
+            hasAce |= isAce(card.code());
+        }
+        return score(hardTotal, hasAce);
+    }
+
+    /**
+     * Score of a hand given its total counting aces as one; a single ace counts as eleven
+     * when that does not bust the hand.
+     */
+    public static int score(int hardTotal, boolean hasAce) {
+        return isSoft(hardTotal, hasAce) ? hardTotal + SOFT_ACE_BONUS : hardTotal;
+    }
+
+    public static boolean isSoft(int hardTotal, boolean hasAce) {
+        return hasAce && hardTotal + SOFT_ACE_BONUS <= BLACKJACK;
+    }
+
+    public static int hardValue(int cardCode) {
+        return HARD_VALUES[cardCode];
+    }
+
+    public static boolean isAce(int cardCode) {
+        return ACES[cardCode];
+    }
+
+    public static boolean isBust(int score) {
+        return score > BLACKJACK;
+    }
+
+    public static boolean dealerDraws(int dealerScore) {
+        return dealerScore < DEALER_STANDS_ON;
+    }
+
+    /**
+     * Settles a hand the player did not bust; a player bust is always a {@link Outcome#LOSS}.
+     */
+    public static Outcome settle(int playerScore, int dealerScore) {
+        if (isBust(playerScore)) {
+            return Outcome.LOSS;
+        }
+        if (isBust(dealerScore) || playerScore > dealerScore) {
+            return Outcome.WIN;
+        }
+        return playerScore < dealerScore ? Outcome.LOSS : Outcome.TIE;
+    }
+}
@@ -0,0 +1,23 @@
+package blackjack.rules;
+
+/**
+ * Decides whether the player takes another card.
+ */
+@FunctionalInterface
+public interface HitStrategy {
+
+    /**
+     * @param playerScore  current score of the player's hand
+     * @param soft         whether that score counts an ace as eleven
+     * @param dealerUpCard score of the dealer's visible card, 1 to 11
+     */
+    boolean hit(int playerScore, boolean soft, int dealerUpCard);
+
+    static HitStrategy basic() {
+        return BasicStrategy.INSTANCE;
+    }
+
+    static HitStrategy standOn(int score) {
+        return (playerScore, soft, dealerUpCard) -> playerScore < score;
+    }
+}
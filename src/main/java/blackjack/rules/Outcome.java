@@ -0,0 +1,26 @@
+package blackjack.rules;
+
+import blackjack.model.enums.Participant;
+import blackjack.model.enums.PlayerStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum Outcome {
+    WIN(PlayerStatus.WON, Participant.PLAYER, 2),
+    LOSS(PlayerStatus.LOST, Participant.DEALER, -2),
+    TIE(PlayerStatus.TIE, Participant.NONE, 1);
+
+    private final PlayerStatus playerStatus;
+    private final Participant winner;
+    private final int points;
+
+    public static Outcome of(Participant winner) {
+        return switch (winner) {
+            case PLAYER -> WIN;
+            case DEALER -> LOSS;
+            case NONE -> TIE;
+        };
+    }
+}
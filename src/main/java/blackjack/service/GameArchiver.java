@@ -0,0 +1,105 @@
+package blackjack.service;
+
+import blackjack.config.ArchiveProperties;
+import blackjack.model.ArchivedGame;
+import blackjack.model.Game;
+import blackjack.rules.BlackjackRules;
+import blackjack.store.GameHistoryStore;
+import blackjack.store.GameStore;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Moves finished games out of the games collection into the compact history collection,
+ * in batches and in the background, so the games collection holds in-flight games only.
+ * A game is archived once its points are settled, which keeps the ledger's startup
+ * recovery working on the games collection alone. The archive is written before the
+ * games are deleted, and writing it again is harmless, so no game is lost between them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GameArchiver {
+
+    private final GameStore gameStore;
+    private final GameHistoryStore gameHistoryStore;
+    private final ArchiveProperties properties;
+
+    private Disposable archiver;
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        gameHistoryStore.prepare(properties.getTtl())
+                .subscribe(null, error -> log.error("Creating the game history indexes failed", error));
+
+        archiver = Flux.interval(properties.getInterval())
+                .concatMap(tick -> archive()
+                        .onErrorResume(error -> {
+                            log.error("Archiving finished games failed, retrying next interval", error);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (archiver != null) {
+            archiver.dispose();
+        }
+    }
+
+    /**
+     * Archives settled games batch after batch until a batch comes back short.
+     */
+    public Mono<Long> archive() {
+        return archiveBatch()
+                .expand(archived -> archived == properties.getBatchSize() ? archiveBatch() : Mono.empty())
+                .reduce(0L, Long::sum)
+                .doOnNext(archived -> {
+                    if (archived > 0) {
+                        log.debug("Archived {} finished games", archived);
+                    }
+                });
+    }
+
+    private Mono<Long> archiveBatch() {
+        return gameStore.findSettled(properties.getBatchSize())
+                .map(GameArchiver::toArchivedGame)
+                .collectList()
+                .flatMap(games -> {
+                    if (games.isEmpty()) {
+                        return Mono.just(0L);
+                    }
+                    List<String> gameIds = games.stream().map(ArchivedGame::getId).toList();
+                    return gameHistoryStore.upsertAll(games)
+                            .then(gameStore.deleteSettled(gameIds))
+                            .thenReturn((long) games.size());
+                });
+    }
+
+    private static ArchivedGame toArchivedGame(Game game) {
+        return ArchivedGame.builder()
+                .id(game.getId())
+                .playerId(game.getPlayerId())
+                .playerCards(game.getPlayerCards())
+                .dealerCards(game.getDealerCards())
+                .playerScore(BlackjackRules.handScore(game.getPlayerCards()))
+                .dealerScore(BlackjackRules.handScore(game.getDealerCards()))
+                .winner(game.getWinner())
+                .points(game.getPoints())
+                .createdAt(game.getCreatedAt())
+                // Games finished before finish times were recorded expire counting from now
+                .finishedAt(game.getFinishedAt() != null ? game.getFinishedAt() : Instant.now())
+                .build();
+    }
+}
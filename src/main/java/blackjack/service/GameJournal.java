@@ -0,0 +1,216 @@
+package blackjack.service;
+
+import blackjack.config.GameSessionProperties;
+import blackjack.exception.GameConflictException;
+import blackjack.model.Card;
+import blackjack.model.Game;
+import blackjack.model.GameEvent;
+import blackjack.model.GameJournalEntry;
+import blackjack.model.enums.GameStatus;
+import blackjack.model.enums.Participant;
+import blackjack.store.GameJournalStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The append-only record of every game: one small entry per committed move, holding the
+ * events of the move (a HIT is one card code), instead of a rewrite of the whole game.
+ * A game is its last snapshot in the game store with the entries written after it replayed
+ * on top, or its whole journal when it has no snapshot. Journals outlive their games for
+ * audits and expire with the game history.
+ * <p>
+ * Entries are group committed: one write is in flight at a time, and the entries recorded
+ * meanwhile go together in the next one. A lone move is written at once, while under load
+ * a write carries the moves of many games in one round trip.
+ */
+@Component
+@RequiredArgsConstructor
+public class GameJournal {
+
+    private static final long NO_SNAPSHOT = -1;
+
+    private final GameJournalStore gameJournalStore;
+    private final GameSessionProperties sessionProperties;
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean writing = new AtomicBoolean();
+
+    private record Pending(GameJournalEntry entry, MonoSink<Void> written) {
+    }
+
+    /**
+     * Appends the events that took the game to its version. Fails with
+     * {@link GameConflictException} if another move from the same version was recorded first.
+     */
+    public Mono<Void> record(Game game, List<GameEvent> events) {
+        GameJournalEntry entry = GameJournalEntry.builder()
+                .gameId(game.getId())
+                .version(game.getVersion())
+                .at(timeOf(game))
+                .events(events)
+                .build();
+        return Mono.create(written -> {
+            pending.add(new Pending(entry, written));
+            write();
+        });
+    }
+
+    // Takes the next batch if no write is in flight, the end of each write starts the next
+    private void write() {
+        if (pending.isEmpty() || !writing.compareAndSet(false, true)) {
+            return;
+        }
+        List<Pending> batch = new ArrayList<>();
+        Pending next;
+        while (batch.size() < sessionProperties.getJournalBatchSize() && (next = pending.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            writing.set(false);
+            return;
+        }
+        gameJournalStore.appendAll(batch.stream().map(Pending::entry).toList())
+                .subscribe(rejected -> {
+                    writeNext();
+                    complete(batch, rejected);
+                }, error -> {
+                    writeNext();
+                    batch.forEach(entry -> entry.written().error(error));
+                });
+    }
+
+    // Releases the writer before the moves resume, and writes what was queued meanwhile off
+    // this thread, so a store completing in place does not recurse
+    private void writeNext() {
+        writing.set(false);
+        if (!pending.isEmpty()) {
+            Schedulers.parallel().schedule(this::write);
+        }
+    }
+
+    private static void complete(List<Pending> batch, Set<Integer> rejected) {
+        for (int i = 0; i < batch.size(); i++) {
+            Pending entry = batch.get(i);
+            if (rejected.contains(i)) {
+                entry.written().error(new GameConflictException(entry.entry().getGameId()));
+            } else {
+                entry.written().success();
+            }
+        }
+    }
+
+    /**
+     * Replays the entries written after {@code snapshot}, or the whole journal when the
+     * snapshot is null. Completes empty if there is neither.
+     */
+    public Mono<Game> load(String gameId, Game snapshot) {
+        long after = snapshot != null ? snapshot.getVersion() : NO_SNAPSHOT;
+        return gameJournalStore.findByGameId(gameId, after)
+                .collectList()
+                .flatMap(entries -> Mono.justOrEmpty(replay(gameId, snapshot, entries, Long.MAX_VALUE)));
+    }
+
+    /**
+     * Rebuilds the game as it was at {@code version} from its journal alone.
+     */
+    public Mono<Game> replay(String gameId, long version) {
+        return gameJournalStore.findByGameId(gameId, NO_SNAPSHOT)
+                .takeWhile(entry -> entry.getVersion() <= version)
+                .collectList()
+                .flatMap(entries -> Mono.justOrEmpty(replay(gameId, null, entries, version)));
+    }
+
+    public Flux<GameJournalEntry> entries(String gameId) {
+        return gameJournalStore.findByGameId(gameId, NO_SNAPSHOT);
+    }
+
+    public Mono<Void> delete(String gameId) {
+        return gameJournalStore.deleteByGameId(gameId);
+    }
+
+    private static Game replay(String gameId, Game snapshot, List<GameJournalEntry> entries, long version) {
+        Game game = snapshot != null ? copy(snapshot) : null;
+        for (GameJournalEntry entry : entries) {
+            if (entry.getVersion() > version) {
+                break;
+            }
+            game = apply(gameId, game, entry);
+        }
+        return game;
+    }
+
+    private static Game apply(String gameId, Game game, GameJournalEntry entry) {
+        for (GameEvent event : entry.getEvents()) {
+            switch (event.getType()) {
+                case DEALT -> game = Game.builder()
+                        .id(gameId)
+                        .playerId(event.getPlayerId())
+                        .playerCards(event.getPlayerCards().copy())
+                        .dealerCards(event.getDealerCards().copy())
+                        .hiddenCard(event.getHiddenCard())
+                        .deck(event.getDeck().copy())
+                        .gameStatus(GameStatus.ACTIVE)
+                        .winner(Participant.NONE)
+                        .createdAt(entry.getAt())
+                        .build();
+                case HIT -> dealt(gameId, game, entry).getPlayerCards().add(draw(game, event.getCard(), entry));
+                case STAND -> dealt(gameId, game, entry).getDealerCards().add(game.getHiddenCard());
+                case DEALER_DRAW -> dealt(gameId, game, entry).getDealerCards().add(draw(game, event.getCard(), entry));
+                case SHUFFLED -> dealt(gameId, game, entry).setDeck(event.getDeck().copy());
+                case SETTLED -> {
+                    dealt(gameId, game, entry).setGameStatus(GameStatus.FINISHED);
+                    game.setWinner(event.getWinner());
+                    game.setPoints(event.getPoints());
+                    game.setFinishedAt(entry.getAt());
+                }
+            }
+        }
+        dealt(gameId, game, entry).setVersion(entry.getVersion());
+        return game;
+    }
+
+    private static Game dealt(String gameId, Game game, GameJournalEntry entry) {
+        if (game == null) {
+            throw new IllegalStateException("Journal of game " + gameId + " starts at version "
+                    + entry.getVersion() + " without a snapshot or a deal");
+        }
+        return game;
+    }
+
+    // Cards are recorded for audits, the deck decides which card comes next
+    private static Card draw(Game game, Card recorded, GameJournalEntry entry) {
+        Card card = game.getDeck().draw();
+        if (!card.equals(recorded)) {
+            throw new IllegalStateException("Journal of game " + game.getId() + " records " + recorded
+                    + " at version " + entry.getVersion() + " but the deck deals " + card);
+        }
+        return card;
+    }
+
+    private static Game copy(Game game) {
+        return game.toBuilder()
+                .playerCards(game.getPlayerCards().copy())
+                .dealerCards(game.getDealerCards().copy())
+                .deck(game.getDeck() != null ? game.getDeck().copy() : null)
+                .build();
+    }
+
+    // The deal and the settlement carry the game's own times, so a replayed game has them too
+    private static Instant timeOf(Game game) {
+        if (game.getVersion() == 0 && game.getCreatedAt() != null) {
+            return game.getCreatedAt();
+        }
+        return game.getFinishedAt() != null ? game.getFinishedAt() : Instant.now();
+    }
+}
@@ -0,0 +1,43 @@
+package blackjack.service;
+
+import blackjack.config.ResultCacheProperties;
+import blackjack.model.Game;
+import blackjack.model.enums.GameStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+/**
+ * Finished games by id, filled when a game is settled and on the first read of an older
+ * result. A finished game never changes, so entries are never stale and polling a result
+ * reads no store.
+ */
+@Component
+public class GameResultCache {
+
+    private final Cache<String, Game> finishedGames;
+
+    public GameResultCache(ResultCacheProperties properties) {
+        this.finishedGames = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+    }
+
+    public Game get(String gameId) {
+        return finishedGames.getIfPresent(gameId);
+    }
+
+    /**
+     * Caches the game if it is finished, games in play are ignored.
+     */
+    public void put(Game game) {
+        if (game.getGameStatus() == GameStatus.FINISHED) {
+            finishedGames.put(game.getId(), game);
+        }
+    }
+
+    public void invalidate(String gameId) {
+        finishedGames.invalidate(gameId);
+    }
+}
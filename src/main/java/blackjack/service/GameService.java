@@ -1,173 +1,342 @@
 package blackjack.service;
 
+import blackjack.config.AutoplayProperties;
+import blackjack.config.MoveBatchProperties;
 import blackjack.exception.DeckEmptyException;
+import blackjack.exception.DomainException;
+import blackjack.exception.GameConflictException;
+import blackjack.exception.GameInPlayException;
 import blackjack.exception.GameNotFoundException;
+import blackjack.metrics.GameMetrics;
 import blackjack.model.Card;
+import blackjack.model.CardPile;
 import blackjack.model.Game;
-import blackjack.model.Player;
+import blackjack.model.GameEvent;
+import blackjack.model.Shoe;
+import blackjack.model.dto.GameDTO;
+import blackjack.model.dto.GameEventDTO;
+import blackjack.model.dto.MoveRequestDTO;
+import blackjack.model.dto.MoveResultDTO;
+import blackjack.model.dto.mapDTO;
 import blackjack.model.enums.MoveType;
 import blackjack.model.enums.GameStatus;
 import blackjack.model.enums.Participant;
-import blackjack.model.enums.PlayerStatus;
-import blackjack.repository.GameRepository;
+import blackjack.rules.BlackjackRules;
+import blackjack.rules.HitStrategy;
+import blackjack.rules.Outcome;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class GameService {
 
-    private final GameRepository gameRepository;
-    private final Random random = new Random();
-    private final PlayerService playerService;
+    private static final String SERVICE = "game";
 
-    private final List<Card> DECK = Card.generateDeck();
+    private final GameSessionStore gameSessionStore;
+    private final GameJournal gameJournal;
+    private final GameResultCache gameResultCache;
+    private final GameUpdates gameUpdates;
+    private final IdempotentMoves idempotentMoves;
+    private final ShoeService shoeService;
+    private final PlayerService playerService;
+    private final PlayerCache playerCache;
+    private final PointsLedger pointsLedger;
+    private final GameMetrics gameMetrics;
+    private final MoveBatchProperties moveBatchProperties;
+    private final AutoplayProperties autoplayProperties;
 
-    private Card drawCard(Deque<Card> deck) {
+    private Card drawCard(Shoe deck) {
         if (deck.isEmpty()) {
-            throw new DeckEmptyException("The deck is empty");
+            throw DeckEmptyException.INSTANCE;
         }
-        return deck.pop();
+        return deck.draw();
     }
 
+    // Reaching the cut card reshuffles: the game continues on a fresh shoe
+    private Card drawCard(Game game, List<GameEvent> events) {
+        if (game.getDeck() == null || game.getDeck().isEmpty()) {
+            game.setDeck(shoeService.nextShoe());
+            events.add(GameEvent.shuffled(game.getDeck()));
+        }
+        return drawCard(game.getDeck());
+    }
+
+    /**
+     * Deals a game for the player with the name, who is created on their first game.
+     */
     public Mono<Game> createGame(String playerName) {
+        return gameMetrics.timedService(SERVICE, "createGame", playerService.getOrCreatePlayerId(playerName)
+                        .flatMap(this::deal))
+                .doOnNext(game -> gameMetrics.gameCreated());
+    }
 
-        Deque<Card> deck = new ArrayDeque<>(DECK);
-        Collections.shuffle((List<Card>) deck, random);
+    private Mono<Game> deal(int playerId) {
+        Shoe deck = shoeService.nextShoe();
 
-        Deque<Card> playerCards = new ArrayDeque<>(List.of(drawCard(deck), drawCard(deck)));
-        Deque<Card> dealerCards = new ArrayDeque<>(List.of(drawCard(deck)));
+        CardPile playerCards = CardPile.of(drawCard(deck), drawCard(deck));
+        CardPile dealerCards = CardPile.of(drawCard(deck));
 
-        return createPlayer(playerName)
-                .map(player -> Game.builder()
-                        .player(player)
-                        .winner(Participant.NONE)
-                        .gameStatus(GameStatus.ACTIVE)
-                        .playerCards(playerCards)
-                        .dealerCards(dealerCards)
-                        .hiddenCard(drawCard(deck))
-                        .deck(deck)
-                        .build()).flatMap(gameRepository::save);
+        return gameSessionStore.create(Game.builder()
+                .playerId(playerId)
+                .winner(Participant.NONE)
+                .gameStatus(GameStatus.ACTIVE)
+                .playerCards(playerCards)
+                .dealerCards(dealerCards)
+                .hiddenCard(drawCard(deck))
+                .deck(deck)
+                .createdAt(Instant.now())
+                .build());
     }
 
-    public Mono<Player> createPlayer(String name) {
-        return playerService.createPlayer(name);
+    /**
+     * Plays {@code hands} games for the player server-side, every move chosen by
+     * {@link HitStrategy#basic()}. The games are dealt, moved and settled like games played
+     * over HTTP, a bounded number at a time, so the journal entries of hands in play are
+     * committed together and their points go to the ledger in batches. Each game is emitted
+     * once finished, in the order the hands finish.
+     */
+    public Flux<Game> autoplay(int playerId, int hands) {
+        return gameMetrics.timedService(SERVICE, "autoplay", Flux.range(0, hands)
+                .flatMap(hand -> deal(playerId)
+                        .doOnNext(game -> gameMetrics.gameCreated())
+                        .flatMap(this::autoplay), autoplayProperties.getConcurrency()));
+    }
+
+    private Mono<Game> autoplay(Game game) {
+        if (game.getGameStatus() != GameStatus.ACTIVE) {
+            return Mono.just(game);
+        }
+        int hardTotal = 0;
+        boolean hasAce = false;
+        for (Card card : game.getPlayerCards()) {
+            hardTotal += BlackjackRules.hardValue(card.code());
+            hasAce |= BlackjackRules.isAce(card.code());
+        }
+        Card upCard = game.getDealerCards().iterator().next();
+        int upCardScore = BlackjackRules.score(BlackjackRules.hardValue(upCard.code()), BlackjackRules.isAce(upCard.code()));
+        MoveType move = HitStrategy.basic().hit(BlackjackRules.score(hardTotal, hasAce),
+                BlackjackRules.isSoft(hardTotal, hasAce), upCardScore) ? MoveType.HIT : MoveType.STAND;
+        return playerMove(game.getId(), move, game.getVersion()).flatMap(this::autoplay);
+    }
+
+    /**
+     * Maps a game with the current name and points of its player, from the player cache.
+     */
+    public Mono<GameDTO> toGameDTO(Game game) {
+        return playerCache.get(game.getPlayerId())
+                .map(player -> mapDTO.toGameDTO(game, player))
+                .switchIfEmpty(Mono.fromSupplier(() -> mapDTO.toGameDTO(game, null)));
     }
 
     public Mono<Game> getGameById(String gameId) {
-        return gameRepository.findById(gameId);
+        return gameSessionStore.findById(gameId);
+    }
+
+    /**
+     * Every event of a game in order, for audits, also once the game is archived. Fails with
+     * {@link GameInPlayException} while the game is ACTIVE: the deal and shuffle events hold
+     * the hidden card and the cards still to come.
+     */
+    public Flux<GameEventDTO> getGameEvents(String gameId) {
+        return gameMetrics.timedService(SERVICE, "getGameEvents", gameSessionStore.findById(gameId)
+                .filter(game -> game.getGameStatus() == GameStatus.ACTIVE)
+                .flatMap(game -> Mono.<Game>error(new GameInPlayException(gameId)))
+                .thenMany(gameJournal.entries(gameId))
+                .concatMap(entry -> Flux.fromIterable(entry.getEvents())
+                        .map(event -> mapDTO.toGameEventDTO(entry, event))));
+    }
+
+    /**
+     * The game now, then every version committed after it until it finishes. A client
+     * falling behind skips versions instead of holding up the game.
+     */
+    public Flux<GameDTO> watchGame(String gameId) {
+        return Flux.defer(() -> {
+            // Updates are subscribed first so no commit is missed, one seen twice is skipped
+            AtomicLong lastVersion = new AtomicLong(-1);
+            return Flux.merge(gameUpdates.updates(gameId), gameSessionStore.findById(gameId))
+                    .filter(game -> lastVersion.getAndAccumulate(game.getVersion(), Math::max) < game.getVersion())
+                    .takeUntil(game -> game.getGameStatus() != GameStatus.ACTIVE);
+        }).concatMap(this::toGameDTO);
+    }
+
+    /**
+     * The game as it was at {@code version}, rebuilt from its journal alone.
+     */
+    public Mono<Game> replayGame(String gameId, long version) {
+        return gameMetrics.timedService(SERVICE, "replayGame", gameJournal.replay(gameId, version));
+    }
+
+    /**
+     * The game, from the result cache once it is finished. A pure read: a game in play is
+     * returned as it is, it is only settled by the move that ends it.
+     */
+    public Mono<Game> getResult(String gameId) {
+        Game finished = gameResultCache.get(gameId);
+        if (finished != null) {
+            return Mono.just(finished);
+        }
+        return gameMetrics.timedService(SERVICE, "getResult", gameSessionStore.findById(gameId)
+                .doOnNext(gameResultCache::put));
     }
 
     public Mono<Void> deleteGame(String id) {
-        return gameRepository.findById(id)
+        return gameSessionStore.findById(id)
                 .switchIfEmpty(Mono.error(new GameNotFoundException(id)))
-                .flatMap(gameRepository::delete);
+                .flatMap(gameSessionStore::delete)
+                .doFinally(signal -> gameResultCache.invalidate(id));
     }
 
     public Mono<Game> playerMove(String gameId, MoveType move) {
-        return gameRepository.findById(gameId)
-                .flatMap(game -> switch (move) {
-                    case STAND -> handleDealerTurn(game).flatMap(this::finishGame);
-                    case HIT -> addCardToPlayer(game);
-                });
+        return playerMove(gameId, move, null, null);
     }
 
-    private Mono<Game> addCardToPlayer(Game game) {
-        if (game.getGameStatus() != GameStatus.ACTIVE) {
-            return Mono.just(game);
-        }
-        if (game.getDeck() == null || game.getDeck().isEmpty()) {
-            return Mono.error(new DeckEmptyException("Player can't draw cards from an empty deck"));
+    /**
+     * Applies a move like {@link #playerMove(String, MoveType, Long)}, once per
+     * {@code idempotencyKey} (if given): a retry with the same key returns the game the
+     * first attempt committed.
+     */
+    public Mono<Game> playerMove(String gameId, MoveType move, Long expectedVersion, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return playerMove(gameId, move, expectedVersion);
         }
+        return idempotentMoves.apply(gameId, idempotencyKey, move, () -> playerMove(gameId, move, expectedVersion));
+    }
 
-        game.getPlayerCards().add(drawCard(game.getDeck()));
-        Game updatedGame = game;
-        // Player busts
-        if (calculateHandScore(game.getPlayerCards()) > 21) {
-            game.getPlayer().setStatus(PlayerStatus.LOST);
-            playerService.addPoints(game.getPlayer().getId(), -2);
-            updatedGame = game.toBuilder()
-                    .gameStatus(GameStatus.FINISHED)
-                    .winner(Participant.DEALER)
-                    .build();
-        }
+    /**
+     * Applies a move to the game, failing with {@link GameConflictException} when the game is
+     * not at {@code expectedVersion} (if given) or another move is committed concurrently.
+     */
+    public Mono<Game> playerMove(String gameId, MoveType move, Long expectedVersion) {
+        return gameMetrics.timedService(SERVICE, "playerMove", gameSessionStore.findById(gameId)
+                .flatMap(game -> {
+                    if (expectedVersion != null && expectedVersion != game.getVersion()) {
+                        return Mono.error(new GameConflictException(gameId));
+                    }
+                    if (game.getGameStatus() != GameStatus.ACTIVE) {
+                        return Mono.just(game);
+                    }
+                    Game next = nextVersion(game);
+                    List<GameEvent> events = new ArrayList<>(4);
+                    switch (move) {
+                        case STAND -> {
+                            handleDealerTurn(next, events);
+                            scoreGame(next, events);
+                        }
+                        case HIT -> addCardToPlayer(next, events);
+                    }
+                    return commit(game, next, events);
+                }));
+    }
 
-        return gameRepository.save(updatedGame);
+    /**
+     * Applies a batch of moves: the moves of one game in batch order, those of different
+     * games concurrently, a bounded number of games at a time. Each result is emitted once
+     * its move is committed, with the move's position in the batch. A failed move does not
+     * stop the others, also not the later moves of its game.
+     */
+    public Flux<MoveResultDTO> playerMoves(List<MoveRequestDTO> moves) {
+        Map<String, List<Integer>> movesByGame = new LinkedHashMap<>();
+        for (int index = 0; index < moves.size(); index++) {
+            movesByGame.computeIfAbsent(moves.get(index).getGameId(), gameId -> new ArrayList<>()).add(index);
+        }
+        return gameMetrics.timedService(SERVICE, "playerMoves", Flux.fromIterable(movesByGame.values())
+                .flatMap(indexes -> Flux.fromIterable(indexes)
+                        .concatMap(index -> playerMove(index, moves.get(index))), moveBatchProperties.getConcurrency()));
     }
 
-    private Mono<Game> handleDealerTurn(Game game) {
-        try{
-            if (game.getGameStatus() != GameStatus.ACTIVE) {
-                return Mono.just(game);
-            }
-            game.getDealerCards().add(game.getHiddenCard()); // reveal hidden card
+    private Mono<MoveResultDTO> playerMove(int index, MoveRequestDTO move) {
+        MoveResultDTO.MoveResultDTOBuilder result = MoveResultDTO.builder().index(index).gameId(move.getGameId());
+        return playerMove(move.getGameId(), move.getMove(), move.getExpectedVersion(), move.getIdempotencyKey())
+                .flatMap(this::toGameDTO)
+                .map(gameDTO -> result.status(HttpStatus.OK.value()).game(gameDTO).build())
+                .switchIfEmpty(Mono.fromSupplier(() -> result.status(HttpStatus.NOT_FOUND.value())
+                        .error(new GameNotFoundException(move.getGameId()).getMessage().trim())
+                        .build()))
+                .onErrorResume(error -> Mono.just(result.status(statusOf(error).value()).error(messageOf(error)).build()));
+    }
 
-            while (calculateHandScore(game.getDealerCards()) < 17 && !game.getDeck().isEmpty()) {
-                game.getDealerCards().add(drawCard(game.getDeck()));
-            }
+    // The status the single move endpoint answers with, see DomainExceptionHandler
+    private static HttpStatus statusOf(Throwable error) {
+        return error instanceof DomainException domain ? domain.getStatus() : HttpStatus.INTERNAL_SERVER_ERROR;
+    }
 
-            game.setGameStatus(GameStatus.FINISHED);
-        }
-        catch(DeckEmptyException e){
-            System.out.println("Dealer can't draw cards from an empty deck");
+    // Unexpected failures are logged here and not described to the client
+    private static String messageOf(Throwable error) {
+        if (statusOf(error) == HttpStatus.INTERNAL_SERVER_ERROR) {
+            log.error("Move of a batch failed", error);
+            return HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase();
         }
-        return gameRepository.save(game);
+        return error.getMessage().trim();
     }
 
-    private int calculateHandScore(Deque<Card> cards) {
-        int score = 0;
-        int aces = 0;
+    // Committed games are shared by readers, moves are applied to a copy
+    private Game nextVersion(Game game) {
+        return game.toBuilder()
+                .playerCards(game.getPlayerCards().copy())
+                .dealerCards(game.getDealerCards().copy())
+                .deck(game.getDeck().copy())
+                .version(game.getVersion() + 1)
+                .build();
+    }
 
-        for (Card card : cards) {
-            var value = card.getValue();
-            if(value.isAce()) aces++;
-            score += value.getMaxValue();
-        }
-        while (score > 21 && aces-- > 0) score -= 10;
-        return score;
-    }
-
-    public Mono<Game> finishGame(Game game) {
-        int playerScore = calculateHandScore(game.getPlayerCards());
-        int dealerScore = calculateHandScore(game.getDealerCards());
-
-        PlayerStatus playerStatus;
-        int points;
-        Participant winner;
-
-        if (playerScore > 21) {
-            playerStatus = PlayerStatus.LOST;
-            points = -2;
-            winner = Participant.DEALER;
-        } else if (dealerScore > 21) {
-            playerStatus = PlayerStatus.WON;
-            points = 2;
-            winner = Participant.PLAYER;
-        } else if (playerScore > dealerScore) {
-            playerStatus = PlayerStatus.WON;
-            points = 2;
-            winner = Participant.PLAYER;
-        } else if (playerScore < dealerScore) {
-            playerStatus = PlayerStatus.LOST;
-            points = -2;
-            winner = Participant.DEALER;
-        } else {
-            playerStatus = PlayerStatus.TIE;
-            points = 1;
-            winner = Participant.NONE;
+    private Mono<Game> commit(Game current, Game next, List<GameEvent> events) {
+        return gameSessionStore.update(current, next, events)
+                .doOnNext(game -> {
+                    gameUpdates.publish(game);
+                    if (game.getGameStatus() == GameStatus.FINISHED) {
+                        gameMetrics.gameFinished(game);
+                        pointsLedger.record(game);
+                        gameResultCache.put(game);
+                    }
+                });
+    }
+
+    private void addCardToPlayer(Game game, List<GameEvent> events) {
+        Card card = drawCard(game, events);
+        game.getPlayerCards().add(card);
+        events.add(GameEvent.hit(card));
+        // Player busts
+        if (BlackjackRules.isBust(BlackjackRules.handScore(game.getPlayerCards()))) {
+            settle(game, Outcome.LOSS, events);
         }
+    }
 
-        Game updatedGame = game.toBuilder()
-                .gameStatus(GameStatus.FINISHED)
-                .winner(winner)
-                .build();
+    private void handleDealerTurn(Game game, List<GameEvent> events) {
+        game.getDealerCards().add(game.getHiddenCard()); // reveal hidden card
+        events.add(GameEvent.stand());
+
+        while (BlackjackRules.dealerDraws(BlackjackRules.handScore(game.getDealerCards()))) {
+            Card card = drawCard(game, events);
+            game.getDealerCards().add(card);
+            events.add(GameEvent.dealerDraw(card));
+        }
+    }
 
-        game.getPlayer().setStatus(playerStatus);
+    private void scoreGame(Game game, List<GameEvent> events) {
+        int playerScore = BlackjackRules.handScore(game.getPlayerCards());
+        int dealerScore = BlackjackRules.handScore(game.getDealerCards());
+        settle(game, BlackjackRules.settle(playerScore, dealerScore), events);
+    }
 
-        return playerService.addPoints(updatedGame.getPlayer().getId(), points)
-                .then(gameRepository.save(updatedGame));
+    private void settle(Game game, Outcome outcome, List<GameEvent> events) {
+        game.setGameStatus(GameStatus.FINISHED);
+        game.setWinner(outcome.getWinner());
+        game.setPoints(outcome.getPoints());
+        game.setFinishedAt(Instant.now());
+        events.add(GameEvent.settled(game));
     }
-}
\ No newline at end of file
+}
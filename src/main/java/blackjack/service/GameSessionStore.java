@@ -0,0 +1,212 @@
+package blackjack.service;
+
+import blackjack.config.GameSessionProperties;
+import blackjack.exception.GameConflictException;
+import blackjack.model.Game;
+import blackjack.model.GameEvent;
+import blackjack.model.enums.GameStatus;
+import blackjack.store.GameStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps ACTIVE games in memory in front of the {@link GameStore}, with every move recorded
+ * in the {@link GameJournal} before it is applied. The journal entry, a few bytes per move,
+ * is the commit: the whole game is only written to the store as a snapshot every
+ * {@code snapshotEvery} moves, when it finishes and when it is evicted (idle or over
+ * capacity). A game that is not cached is its snapshot with the journal replayed on top.
+ * A failed snapshot does not fail the move, which is already committed: the game stays
+ * whole in its journal and the snapshot is tried again later.
+ * <p>
+ * Cached games are never mutated: a move commits a copy with the next version, and the
+ * commit fails with {@link GameConflictException} if another move from the same version
+ * was journaled first. Snapshots are guarded by the version last written to the store.
+ */
+@Slf4j
+@Component
+public class GameSessionStore {
+
+    private static final long NOT_PERSISTED = -1;
+
+    private final GameStore gameStore;
+    private final GameJournal gameJournal;
+    private final GameSessionProperties properties;
+    private final Cache<String, Game> activeGames;
+    // Cached games by id, mapped to the version of their snapshot in the store
+    private final Map<String, Long> snapshotVersions = new ConcurrentHashMap<>();
+
+    public GameSessionStore(GameStore gameStore, GameJournal gameJournal, GameSessionProperties properties) {
+        this.gameStore = gameStore;
+        this.gameJournal = gameJournal;
+        this.properties = properties;
+        this.activeGames = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxActiveGames())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .scheduler(Scheduler.systemScheduler())
+                .removalListener(this::onRemoval)
+                .build();
+    }
+
+    /**
+     * Snapshots the cached games whose last moves are only in the journal, so the next
+     * start does not replay them.
+     */
+    @PreDestroy
+    void shutdown() {
+        Flux.fromIterable(List.copyOf(activeGames.asMap().values()))
+                .filter(this::hasUnsnapshottedMoves)
+                .flatMap(game -> snapshot(game)
+                        .onErrorResume(error -> {
+                            log.warn("Snapshot of game {} failed, it is replayed from its journal", game.getId(), error);
+                            return Mono.empty();
+                        }))
+                .then()
+                .block(properties.getShutdownTimeout());
+    }
+
+    public Mono<Game> findById(String gameId) {
+        Game cached = activeGames.getIfPresent(gameId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return gameStore.findById(gameId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(snapshot -> gameJournal.load(gameId, snapshot.orElse(null))
+                        .map(game -> {
+                            if (game.getGameStatus() != GameStatus.ACTIVE) {
+                                return game;
+                            }
+                            Game concurrentlyLoaded = activeGames.asMap().putIfAbsent(gameId, game);
+                            if (concurrentlyLoaded != null) {
+                                return concurrentlyLoaded;
+                            }
+                            snapshotVersions.put(gameId, snapshot.map(Game::getVersion).orElse(NOT_PERSISTED));
+                            return game;
+                        }));
+    }
+
+    public Mono<Game> create(Game game) {
+        game.setId(ObjectId.get().toHexString());
+        return gameJournal.record(game, List.of(GameEvent.dealt(game)))
+                .then(Mono.fromSupplier(() -> {
+                    snapshotVersions.put(game.getId(), NOT_PERSISTED);
+                    activeGames.put(game.getId(), game);
+                    return game;
+                }));
+    }
+
+    /**
+     * Commits {@code next}, a copy of {@code current} with the following version, which
+     * {@code events} took it to. Only a failure to journal the move fails it.
+     */
+    public Mono<Game> update(Game current, Game next, List<GameEvent> events) {
+        String gameId = current.getId();
+        return gameJournal.record(next, events)
+                .then(Mono.defer(() -> {
+                    if (next.getGameStatus() == GameStatus.ACTIVE) {
+                        // Keeps the newest version, a game evicted meanwhile is cached again
+                        activeGames.asMap().merge(gameId, next, (cached, committed) ->
+                                cached.getVersion() > committed.getVersion() ? cached : committed);
+                        Long snapshotVersion = snapshotVersions.get(gameId);
+                        if (snapshotVersion != null && next.getVersion() - snapshotVersion < properties.getSnapshotEvery()) {
+                            return Mono.just(next);
+                        }
+                        // Still behind, the next move tries again
+                        return snapshot(next).onErrorResume(error -> {
+                            log.warn("Snapshot of game {} failed, its moves stay in the journal", gameId, error);
+                            return Mono.just(next);
+                        });
+                    }
+                    // A finished game leaves the cache, its snapshot is what the ledger and the archiver read
+                    activeGames.asMap().computeIfPresent(gameId, (id, cached) ->
+                            cached.getVersion() > next.getVersion() ? cached : null);
+                    return Mono.defer(() -> snapshot(next))
+                            .retryWhen(Retry.backoff(properties.getSnapshotRetries(), properties.getSnapshotRetryBackoff()))
+                            .onErrorResume(error -> {
+                                log.error("Snapshot of finished game {} failed, its points are posted but not "
+                                        + "recovered if the service stops before the ledger flushes", gameId, error);
+                                return Mono.just(next);
+                            })
+                            .doFinally(signal -> snapshotVersions.remove(gameId));
+                }));
+    }
+
+    public Mono<Void> delete(Game game) {
+        snapshotVersions.remove(game.getId());
+        activeGames.invalidate(game.getId());
+        return gameStore.deleteById(game.getId())
+                .then(gameJournal.delete(game.getId()));
+    }
+
+    public long activeGameCount() {
+        return activeGames.estimatedSize();
+    }
+
+    /**
+     * Writes the game to the store over the snapshot it replaces. When that version is
+     * unknown, or another snapshot got there first, the stored version is read back and
+     * the game is written if it is still newer.
+     */
+    private Mono<Game> snapshot(Game game) {
+        String gameId = game.getId();
+        Long snapshotVersion = snapshotVersions.get(gameId);
+        Mono<Game> written = snapshotVersion != null
+                ? persist(game, snapshotVersion)
+                : Mono.error(new GameConflictException(gameId));
+        return written
+                .onErrorResume(GameConflictException.class, conflict -> gameStore.findById(gameId)
+                        .map(Game::getVersion)
+                        .defaultIfEmpty(NOT_PERSISTED)
+                        .flatMap(stored -> stored < game.getVersion() ? persist(game, stored) : Mono.just(game)))
+                .doOnNext(saved -> snapshotVersions.merge(gameId, saved.getVersion(), Math::max));
+    }
+
+    private Mono<Game> persist(Game game, long storedVersion) {
+        if (storedVersion == NOT_PERSISTED) {
+            return gameStore.insert(game)
+                    .onErrorMap(DuplicateKeyException.class, duplicate -> new GameConflictException(game.getId()));
+        }
+        return gameStore.updateIfVersion(game, storedVersion)
+                .switchIfEmpty(Mono.error(new GameConflictException(game.getId())));
+    }
+
+    private boolean hasUnsnapshottedMoves(Game game) {
+        Long snapshotVersion = snapshotVersions.get(game.getId());
+        return snapshotVersion == null || snapshotVersion < game.getVersion();
+    }
+
+    // An evicted game is snapshotted, so its journal does not have to be replayed when it comes back
+    private void onRemoval(String gameId, Game game, RemovalCause cause) {
+        if (!cause.wasEvicted() || game == null) {
+            return;
+        }
+        if (!hasUnsnapshottedMoves(game)) {
+            snapshotVersions.remove(gameId);
+            return;
+        }
+        snapshot(game)
+                .doFinally(signal -> {
+                    if (activeGames.getIfPresent(gameId) == null) {
+                        snapshotVersions.remove(gameId);
+                    }
+                })
+                .subscribe(saved -> log.debug("Game {} snapshotted after {}", gameId, cause),
+                        error -> log.error("Snapshot of evicted game {} failed, it is replayed from its journal", gameId, error));
+    }
+}
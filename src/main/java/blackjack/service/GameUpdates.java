@@ -0,0 +1,61 @@
+package blackjack.service;
+
+import blackjack.config.StreamProperties;
+import blackjack.model.Game;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Committed versions of games, pushed to the clients watching them. Each watched game has
+ * a multicast sink, created for its first watcher and dropped with its last, so a commit
+ * of an unwatched game costs a map lookup. Every subscriber buffers on its own and drops
+ * its oldest versions when it falls behind, a slow client never holds up moves or others.
+ */
+@Component
+public class GameUpdates {
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final int bufferSize;
+
+    public GameUpdates(StreamProperties properties) {
+        this.bufferSize = properties.getBufferSize();
+    }
+
+    private static final class Channel {
+        private final Sinks.Many<Game> sink = Sinks.many().multicast().directBestEffort();
+        private int watchers;
+    }
+
+    public void publish(Game game) {
+        Channel channel = channels.get(game.getId());
+        if (channel != null) {
+            // Commits of one game can complete on different threads, a sink takes one at a time
+            synchronized (channel) {
+                channel.sink.tryEmitNext(game);
+            }
+        }
+    }
+
+    /**
+     * The versions of the game committed from subscription on.
+     */
+    public Flux<Game> updates(String gameId) {
+        return Flux.defer(() -> {
+            Channel channel = channels.compute(gameId, (id, current) -> {
+                Channel watched = current != null ? current : new Channel();
+                watched.watchers++;
+                return watched;
+            });
+            return channel.sink.asFlux()
+                    .onBackpressureBuffer(bufferSize, dropped -> {
+                    }, BufferOverflowStrategy.DROP_OLDEST)
+                    .doFinally(signal -> channels.computeIfPresent(gameId, (id, current) ->
+                            --current.watchers == 0 ? null : current));
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package blackjack.service;
+
+import blackjack.config.IdempotencyProperties;
+import blackjack.exception.IdempotencyKeyReusedException;
+import blackjack.model.Game;
+import blackjack.model.enums.MoveType;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Outcomes of moves by game and client idempotency key, so a retried move gets the game
+ * its first attempt committed instead of being applied again. A retry arriving while the
+ * first attempt is in flight waits for it. Failed moves are not kept and can be retried.
+ * Keys live in memory for a TTL, long enough for client retries.
+ */
+@Component
+public class IdempotentMoves {
+
+    private final AsyncCache<Key, Outcome> outcomes;
+
+    public IdempotentMoves(IdempotencyProperties properties) {
+        this.outcomes = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .buildAsync();
+    }
+
+    private record Key(String gameId, String idempotencyKey) {
+    }
+
+    private record Outcome(MoveType move, Game game) {
+    }
+
+    /**
+     * Applies the move the first time the key is seen for the game, and returns the game it
+     * committed on every retry. Fails with {@link IdempotencyKeyReusedException} if the key
+     * was used for another move.
+     */
+    public Mono<Game> apply(String gameId, String idempotencyKey, MoveType move, Supplier<Mono<Game>> apply) {
+        return Mono.fromFuture(() -> outcomes.get(new Key(gameId, idempotencyKey), (key, executor) -> apply.get()
+                        .map(game -> new Outcome(move, game))
+                        .toFuture()), true)
+                .flatMap(outcome -> outcome.move() == move
+                        ? Mono.just(outcome.game())
+                        : Mono.error(new IdempotencyKeyReusedException(idempotencyKey)));
+    }
+}
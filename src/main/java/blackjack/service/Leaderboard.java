@@ -0,0 +1,284 @@
+package blackjack.service;
+
+import blackjack.model.Player;
+import blackjack.model.dto.RankingDTO;
+import blackjack.store.PlayerStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory player ranking, an order-statistic treap ordered by points (descending)
+ * then player id. Warmed from the player store at startup and kept current by every points or
+ * name change, so the rank of a player costs O(log n) and a page O(log n + limit)
+ * instead of a full table scan.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class Leaderboard implements SmartInitializingSingleton {
+
+    private final PlayerStore playerStore;
+
+    private final Map<Integer, Node> nodes = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root;
+    // Counts changes, so followers of the ranking only read it when it changed
+    private volatile long changes;
+
+    // Points deltas only apply to players in the tree, so it is filled before the web server
+    // starts and the points ledger runs: a delta posted during an asynchronous warm-up was lost
+    @Override
+    public void afterSingletonsInstantiated() {
+        Long players = playerStore.findAll()
+                .doOnNext(this::putIfAbsent)
+                .count()
+                .block();
+        log.info("Leaderboard warmed with {} players", players);
+    }
+
+    public void put(Player player) {
+        update(player.getId(), new Node(player.getId(), player.getName(), player.getTotalPoints()), true);
+    }
+
+    private void putIfAbsent(Player player) {
+        update(player.getId(), new Node(player.getId(), player.getName(), player.getTotalPoints()), false);
+    }
+
+    public void addPoints(int playerId, int delta) {
+        lock.writeLock().lock();
+        try {
+            Node current = nodes.get(playerId);
+            if (current != null && delta != 0) {
+                replace(current, new Node(playerId, current.name, current.points + delta));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The order is by points and id, so a new name keeps the place of the player
+    public void rename(int playerId, String name) {
+        lock.writeLock().lock();
+        try {
+            Node current = nodes.get(playerId);
+            if (current != null && !current.name.equals(name)) {
+                replace(current, new Node(playerId, name, current.points));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<RankingDTO> range(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int end = Math.min(size(root), offset + limit);
+            List<RankingDTO> page = new ArrayList<>(Math.max(end - offset, 0));
+            // Descends to the node at the offset once, keeping the ancestors that follow it,
+            // then walks the tree in order from there
+            Deque<Node> next = new ArrayDeque<>();
+            Node tree = root;
+            int index = offset;
+            while (tree != null) {
+                int leftSize = size(tree.left);
+                if (index <= leftSize) {
+                    next.push(tree);
+                    if (index == leftSize) {
+                        break;
+                    }
+                    tree = tree.left;
+                } else {
+                    index -= leftSize + 1;
+                    tree = tree.right;
+                }
+            }
+            for (int rank = offset; rank < end; rank++) {
+                Node node = next.pop();
+                page.add(toRankingDTO(node, rank + 1));
+                for (Node child = node.right; child != null; child = child.left) {
+                    next.push(child);
+                }
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<RankingDTO> rankOf(int playerId) {
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(playerId);
+            return Optional.ofNullable(node).map(n -> toRankingDTO(n, countBefore(root, n) + 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long changes() {
+        return changes;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void update(int playerId, Node node, boolean overwrite) {
+        lock.writeLock().lock();
+        try {
+            Node current = nodes.get(playerId);
+            if (current == null) {
+                nodes.put(playerId, node);
+                root = insert(root, node);
+                changes++;
+            } else if (overwrite) {
+                replace(current, node);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replace(Node current, Node node) {
+        root = remove(root, current);
+        nodes.put(node.id, node);
+        root = insert(root, node);
+        changes++;
+    }
+
+    private static RankingDTO toRankingDTO(Node node, int rank) {
+        return RankingDTO.builder()
+                .rank(rank)
+                .id(node.id)
+                .name(node.name)
+                .totalPoints(node.points)
+                .build();
+    }
+
+    // Treap primitives, all callers hold the lock
+
+    private static final class Node {
+        private final int id;
+        private final String name;
+        private final int points;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(int id, String name, int points) {
+            this.id = id;
+            this.name = name;
+            this.points = points;
+        }
+    }
+
+    private static int compare(Node a, Node b) {
+        int byPoints = Integer.compare(b.points, a.points);
+        return byPoints != 0 ? byPoints : Integer.compare(a.id, b.id);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node resize(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static Node insert(Node tree, Node node) {
+        if (tree == null) {
+            return node;
+        }
+        if (node.priority > tree.priority) {
+            Node[] parts = split(tree, node);
+            node.left = parts[0];
+            node.right = parts[1];
+            return resize(node);
+        }
+        if (compare(node, tree) < 0) {
+            tree.left = insert(tree.left, node);
+        } else {
+            tree.right = insert(tree.right, node);
+        }
+        return resize(tree);
+    }
+
+    private static Node remove(Node tree, Node node) {
+        if (tree == null) {
+            return null;
+        }
+        if (tree == node) {
+            return merge(tree.left, tree.right);
+        }
+        if (compare(node, tree) < 0) {
+            tree.left = remove(tree.left, node);
+        } else {
+            tree.right = remove(tree.right, node);
+        }
+        return resize(tree);
+    }
+
+    // Splits into nodes ordered before the key and nodes ordered after it
+    private static Node[] split(Node tree, Node key) {
+        if (tree == null) {
+            return new Node[]{null, null};
+        }
+        if (compare(tree, key) < 0) {
+            Node[] parts = split(tree.right, key);
+            tree.right = parts[0];
+            parts[0] = resize(tree);
+            return parts;
+        }
+        Node[] parts = split(tree.left, key);
+        tree.left = parts[1];
+        parts[1] = resize(tree);
+        return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return resize(left);
+        }
+        right.left = merge(left, right.left);
+        return resize(right);
+    }
+
+    private static int countBefore(Node tree, Node node) {
+        int count = 0;
+        while (tree != null) {
+            if (compare(node, tree) <= 0) {
+                if (tree == node) {
+                    return count + size(tree.left);
+                }
+                tree = tree.left;
+            } else {
+                count += size(tree.left) + 1;
+                tree = tree.right;
+            }
+        }
+        return count;
+    }
+}
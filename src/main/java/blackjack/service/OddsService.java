@@ -0,0 +1,187 @@
+package blackjack.service;
+
+import blackjack.config.OddsProperties;
+import blackjack.model.Card;
+import blackjack.model.Game;
+import blackjack.model.dto.OddsDTO;
+import blackjack.rules.BlackjackRules;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exact odds of an ACTIVE game from the player's point of view: the hidden card and the
+ * remaining deck are unknown cards drawn in random order. The recursion runs over
+ * counts of each card rank rather than card permutations, and dealer outcome
+ * distributions are memoized in a bounded cache shared by all requests.
+ */
+@Service
+public class OddsService {
+
+    // Rank 0 is the ace, ranks 1 to 10 are the other cards by their value
+    private static final int RANKS = 11;
+    private static final int BUST = BlackjackRules.BLACKJACK + 1;
+    // Distributions of a dealer that stops drawing, indexed by final score
+    private static final double[][] FINAL_SCORES = new double[BUST + 1][];
+
+    static {
+        for (int score = 0; score <= BUST; score++) {
+            FINAL_SCORES[score] = new double[BUST + 1];
+            FINAL_SCORES[score][score] = 1;
+        }
+    }
+
+    private final Cache<DealerState, double[]> dealerOutcomes;
+
+    public OddsService(OddsProperties properties) {
+        this.dealerOutcomes = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .build();
+    }
+
+    public OddsDTO odds(Game game) {
+        int[] counts = new int[RANKS];
+        game.getDeck().forEach(card -> counts[rank(card)]++);
+        counts[rank(game.getHiddenCard())]++;
+
+        int dealerHard = hardTotal(game.getDealerCards());
+        boolean dealerAce = hasAce(game.getDealerCards());
+        int playerHard = hardTotal(game.getPlayerCards());
+        boolean playerAce = hasAce(game.getPlayerCards());
+
+        // The visible dealer card is below 17, so the rule always draws the hidden card first
+        double[] dealer = dealerOutcomes(counts, dealerHard, dealerAce);
+        int playerScore = BlackjackRules.score(playerHard, playerAce);
+
+        double hitWin = 0;
+        double hitTie = 0;
+        double hitBust = 0;
+        int remaining = remaining(counts);
+        for (int rank = 0; rank < RANKS; rank++) {
+            if (counts[rank] == 0) {
+                continue;
+            }
+            double probability = (double) counts[rank] / remaining;
+            int score = BlackjackRules.score(playerHard + hardValue(rank), playerAce || rank == 0);
+            if (BlackjackRules.isBust(score)) {
+                hitBust += probability;
+                continue;
+            }
+            counts[rank]--;
+            double[] afterHit = dealerOutcomes(counts, dealerHard, dealerAce);
+            counts[rank]++;
+            hitWin += probability * winProbability(score, afterHit);
+            hitTie += probability * afterHit[score];
+        }
+
+        Map<Integer, Double> dealerTotals = new LinkedHashMap<>();
+        for (int score = 0; score < BUST; score++) {
+            if (dealer[score] > 0) {
+                dealerTotals.put(score, dealer[score]);
+            }
+        }
+        boolean playerBust = BlackjackRules.isBust(playerScore);
+        return OddsDTO.builder()
+                .gameId(game.getId())
+                .dealerBust(dealer[BUST])
+                .dealerTotals(dealerTotals)
+                .standWin(playerBust ? 0 : winProbability(playerScore, dealer))
+                .standTie(playerBust ? 0 : dealer[playerScore])
+                .hitWin(hitWin)
+                .hitTie(hitTie)
+                .hitBust(hitBust)
+                .build();
+    }
+
+    private static double winProbability(int playerScore, double[] dealer) {
+        double win = dealer[BUST];
+        for (int score = 0; score < playerScore; score++) {
+            win += dealer[score];
+        }
+        return win;
+    }
+
+    // Distribution of the dealer's final score, index BUST holds the probability of busting
+    private double[] dealerOutcomes(int[] counts, int hardTotal, boolean hasAce) {
+        int score = BlackjackRules.score(hardTotal, hasAce);
+        int remaining = remaining(counts);
+        // An exhausted composition stops the dealer, live games reshuffle before that can happen
+        if (!BlackjackRules.dealerDraws(score) || remaining == 0) {
+            return FINAL_SCORES[Math.min(score, BUST)];
+        }
+        DealerState state = DealerState.of(counts, hardTotal, hasAce);
+        double[] cached = dealerOutcomes.getIfPresent(state);
+        if (cached != null) {
+            return cached;
+        }
+        double[] outcomes = new double[BUST + 1];
+        for (int rank = 0; rank < RANKS; rank++) {
+            if (counts[rank] == 0) {
+                continue;
+            }
+            double probability = (double) counts[rank] / remaining;
+            counts[rank]--;
+            double[] next = dealerOutcomes(counts, hardTotal + hardValue(rank), hasAce || rank == 0);
+            counts[rank]++;
+            for (int i = 0; i <= BUST; i++) {
+                outcomes[i] += probability * next[i];
+            }
+        }
+        dealerOutcomes.put(state, outcomes);
+        return outcomes;
+    }
+
+    private static int rank(Card card) {
+        return card.getValue().isAce() ? 0 : card.getValue().getMinValue();
+    }
+
+    private static int hardValue(int rank) {
+        return rank == 0 ? 1 : rank;
+    }
+
+    private static int hardTotal(Iterable<Card> cards) {
+        int total = 0;
+        for (Card card : cards) {
+            total += card.getValue().getMinValue();
+        }
+        return total;
+    }
+
+    private static boolean hasAce(Iterable<Card> cards) {
+        for (Card card : cards) {
+            if (card.getValue().isAce()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int remaining(int[] counts) {
+        int remaining = 0;
+        for (int count : counts) {
+            remaining += count;
+        }
+        return remaining;
+    }
+
+    // Rank counts packed one byte each (at most 8 decks), plus the dealer's hand
+    private record DealerState(long lowRanks, long highRanksAndHand) {
+
+        static DealerState of(int[] counts, int hardTotal, boolean hasAce) {
+            long low = 0;
+            for (int rank = 0; rank < 8; rank++) {
+                low |= (long) counts[rank] << (rank * 8);
+            }
+            long high = 0;
+            for (int rank = 8; rank < RANKS; rank++) {
+                high |= (long) counts[rank] << ((rank - 8) * 8);
+            }
+            high |= (long) hardTotal << 24;
+            high |= hasAce ? 1L << 32 : 0;
+            return new DealerState(low, high);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package blackjack.service;
+
+import blackjack.config.PlayerCacheProperties;
+import blackjack.model.Player;
+import blackjack.store.PlayerStore;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Read-through cache of players by id in front of the player store, shared by the game and player
+ * services. Concurrent misses for the same player share one query. Entries expire after a
+ * short TTL and are replaced or invalidated whenever a player's name or points change.
+ * Cached players are never mutated, callers get copies.
+ */
+@Component
+public class PlayerCache {
+
+    private final PlayerStore playerStore;
+    private final AsyncCache<Integer, Player> players;
+
+    public PlayerCache(PlayerStore playerStore, PlayerCacheProperties properties) {
+        this.playerStore = playerStore;
+        this.players = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .buildAsync();
+    }
+
+    /**
+     * The player, loaded from the store on a miss, or empty if there is no such player. A
+     * cancelled caller does not cancel the load other callers may be waiting on.
+     */
+    public Mono<Player> get(int playerId) {
+        return Mono.fromFuture(() -> players.get(playerId, (id, executor) -> playerStore.findById(id.intValue()).toFuture()), true)
+                .map(PlayerCache::copy);
+    }
+
+    public void put(Player player) {
+        players.put(player.getId(), CompletableFuture.completedFuture(copy(player)));
+    }
+
+    public void invalidate(int playerId) {
+        players.synchronous().invalidate(playerId);
+    }
+
+    private static Player copy(Player player) {
+        return Player.builder()
+                .id(player.getId())
+                .name(player.getName())
+                .totalPoints(player.getTotalPoints())
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package blackjack.service;
+
+import blackjack.model.Player;
+import blackjack.store.PlayerStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of player ids by name. Warmed from the player store at startup and kept
+ * current by every create and rename, so resolving a known name costs no query. The index
+ * only answers who has a name; the unique name constraint of the store stays the arbiter
+ * of who gets it, and a name missing here may still be taken there.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlayerNames {
+
+    private final PlayerStore playerStore;
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    void warmUp() {
+        playerStore.findAll()
+                .doOnNext(player -> idsByName.putIfAbsent(player.getName(), player.getId()))
+                .count()
+                .subscribe(players -> log.info("Player names warmed with {} players", players),
+                        error -> log.error("Player names warm-up failed", error));
+    }
+
+    /**
+     * The id of the player with the name, or null if none is known.
+     */
+    public Integer idOf(String name) {
+        return idsByName.get(name);
+    }
+
+    public void put(Player player) {
+        idsByName.put(player.getName(), player.getId());
+    }
+
+    public void renamed(String previousName, Player player) {
+        idsByName.remove(previousName, player.getId());
+        put(player);
+    }
+}
@@ -1,64 +1,136 @@
 package blackjack.service;
 
+import blackjack.exception.InvalidRequestException;
+import blackjack.exception.PlayerNameTakenException;
 import blackjack.exception.PlayerNotFoundException;
+import blackjack.metrics.GameMetrics;
 import blackjack.model.Player;
-import blackjack.repository.PlayerRepository;
+import blackjack.model.dto.GameHistoryDTO;
+import blackjack.model.dto.RankingDTO;
+import blackjack.model.dto.mapDTO;
+import blackjack.store.GameHistoryStore;
+import blackjack.store.PlayerStore;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class PlayerService {
 
-    private final PlayerRepository playerRepository;
+    private static final String SERVICE = "player";
+
+    private final PlayerStore playerStore;
+    private final GameHistoryStore gameHistoryStore;
+    private final PlayerCache playerCache;
+    private final PlayerNames playerNames;
+    private final Leaderboard leaderboard;
+    private final RankingUpdates rankingUpdates;
+    private final GameMetrics gameMetrics;
 
+    /**
+     * Creates a player with a name no other player has. Costs one insert, the unique name
+     * constraint of the store rejects a name taken meanwhile.
+     */
     public Mono<Player> createPlayer(String name) {
-        return playerRepository.findByName(name)
-                .flatMap(existingPlayer -> Mono.error(new IllegalArgumentException("Player with name '" + name + "' already exists")))
-                .switchIfEmpty(Mono.defer(() -> {
-                    Player player = Player.builder()
-                            .name(name)
-                            .totalPoints(0)
-                            .build();
-                    return playerRepository.save(player);
-                }))
-                .cast(Player.class);
+        if (playerNames.idOf(name) != null) {
+            return Mono.error(new PlayerNameTakenException(name));
+        }
+        return gameMetrics.timedService(SERVICE, "createPlayer", insert(name)
+                .onErrorMap(DuplicateKeyException.class, duplicate -> new PlayerNameTakenException(name)));
     }
 
-    public Mono<Player> getPlayerById(int playerId) {
-        return playerRepository.findById(playerId)
-                .switchIfEmpty(Mono.error(new PlayerNotFoundException(playerId)));
+    /**
+     * The id of the player with the name, creating the player if there is none. A known name
+     * costs no query and a new one costs one insert; a name another request took first is
+     * read back from the store.
+     */
+    public Mono<Integer> getOrCreatePlayerId(String name) {
+        if (name == null || name.isBlank()) {
+            return Mono.error(InvalidRequestException.BLANK_PLAYER_NAME);
+        }
+        Integer playerId = playerNames.idOf(name);
+        if (playerId != null) {
+            return Mono.just(playerId);
+        }
+        return gameMetrics.timedService(SERVICE, "getOrCreatePlayer", insert(name)
+                .onErrorResume(DuplicateKeyException.class, duplicate -> playerStore.findByName(name)
+                        .doOnNext(playerNames::put)
+                        .switchIfEmpty(Mono.error(duplicate)))
+                .map(Player::getId));
+    }
+
+    private Mono<Player> insert(String name) {
+        return Mono.defer(() -> playerStore.save(Player.builder()
+                        .name(name)
+                        .totalPoints(0)
+                        .build()))
+                .doOnNext(player -> {
+                    playerNames.put(player);
+                    changed(player);
+                });
     }
 
-    public Mono<Player> addPoints(int playerId, int points) {
-        return playerRepository.findById(playerId)
-                .flatMap(player -> {
-                    player.setTotalPoints(player.getTotalPoints() + points);
-                    return playerRepository.save(player);
-                })
-                .switchIfEmpty(Mono.error(new PlayerNotFoundException(playerId)));
+    public Mono<Player> getPlayerById(int playerId) {
+        return gameMetrics.timedService(SERVICE, "getPlayerById", playerCache.get(playerId)
+                .switchIfEmpty(Mono.error(new PlayerNotFoundException(playerId))));
     }
 
+    /**
+     * Renames the player with one update of the name alone, so points the ledger posts
+     * meanwhile are not written back over. The ranking keeps its points and only takes the
+     * name, the cached player is dropped and read again.
+     */
     public Mono<Player> updateName(int playerId, String newName) {
         if (newName == null || newName.isBlank()) {
-            return Mono.error(new IllegalArgumentException("Player name cannot be null or empty"));
+            return Mono.error(InvalidRequestException.BLANK_PLAYER_NAME);
         }
-        return playerRepository.findById(playerId)
+        Integer owner = playerNames.idOf(newName);
+        if (owner != null && owner != playerId) {
+            return Mono.error(new PlayerNameTakenException(newName));
+        }
+        return gameMetrics.timedService(SERVICE, "updateName", playerStore.findById(playerId)
                 .switchIfEmpty(Mono.error(new PlayerNotFoundException(playerId)))
-                .flatMap(player -> playerRepository.findByName(newName)
-                        .flatMap(existing -> Mono.error(new IllegalArgumentException("Player with name '" + newName + "' already exists")))
-                        .switchIfEmpty(Mono.defer(() -> {
-                            player.setName(newName);
-                            return playerRepository.save(player);
-                        }))
-                        .cast(Player.class)
-                );
+                .flatMap(player -> playerStore.rename(playerId, newName)
+                        .onErrorMap(DuplicateKeyException.class, duplicate -> new PlayerNameTakenException(newName))
+                        .doOnNext(renamed -> {
+                            playerNames.renamed(player.getName(), renamed);
+                            leaderboard.rename(playerId, newName);
+                            playerCache.invalidate(playerId);
+                        })));
+    }
+
+    private void changed(Player player) {
+        playerCache.put(player);
+        leaderboard.put(player);
+    }
+
+    public Flux<RankingDTO> getRanking(int offset, int limit) {
+        return gameMetrics.timedService(SERVICE, "getRanking", Mono.fromCallable(() -> leaderboard.range(offset, limit)))
+                .flatMapIterable(page -> page);
+    }
+
+    /**
+     * The top {@code size} of the ranking, then the rows of it that change.
+     */
+    public Flux<List<RankingDTO>> getRankingUpdates(int size) {
+        return rankingUpdates.deltas(size);
+    }
+
+    public Mono<RankingDTO> getRank(int playerId) {
+        return gameMetrics.timedService(SERVICE, "getRank", Mono.fromCallable(() -> leaderboard.rankOf(playerId)))
+                .flatMap(Mono::justOrEmpty);
     }
 
-    public Flux<Player> getRanking() {
-        return playerRepository.getRanking()
-                .switchIfEmpty(Flux.error(new PlayerNotFoundException("No players found")));
+    /**
+     * A page of the player's archived games, newest first, after the game id {@code cursor}.
+     */
+    public Flux<GameHistoryDTO> getHistory(int playerId, String cursor, int limit) {
+        return gameMetrics.timedService(SERVICE, "getHistory", gameHistoryStore.findHistory(playerId, cursor, limit)
+                .map(mapDTO::toGameHistoryDTO));
     }
 }
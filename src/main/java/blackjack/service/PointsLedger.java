@@ -0,0 +1,161 @@
+package blackjack.service;
+
+import blackjack.config.LedgerProperties;
+import blackjack.model.Game;
+import blackjack.model.Seat;
+import blackjack.model.Table;
+import blackjack.model.enums.GameStatus;
+import blackjack.store.GameStore;
+import blackjack.store.PlayerStore;
+import blackjack.store.TableStore;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Posts the points of finished games and table rounds to the player store. Deltas are
+ * coalesced per player over a short window and written as one batched atomic increment,
+ * then the games and tables are flagged as settled in their stores. A game or round is only
+ * posted after it has been saved as FINISHED, and unsettled ones are posted again at
+ * startup, so all their points are applied at least once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PointsLedger {
+
+    private final PlayerStore playerStore;
+    private final GameStore gameStore;
+    private final TableStore tableStore;
+    private final TableScheduler tableScheduler;
+    private final Leaderboard leaderboard;
+    private final PlayerCache playerCache;
+    private final LedgerProperties properties;
+
+    private Map<Integer, Integer> pendingPoints = new HashMap<>();
+    private Set<String> pendingGames = new HashSet<>();
+    private Set<String> pendingTables = new HashSet<>();
+    private Disposable flusher;
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        // Games that still embed their player are migrated first, recovery needs their player id
+        gameStore.migratePlayerReferences()
+                .doOnNext(migrated -> {
+                    if (migrated > 0) {
+                        log.info("Migrated {} games to player id references", migrated);
+                    }
+                })
+                .thenMany(gameStore.findByGameStatusAndSettledFalse(GameStatus.FINISHED))
+                .doOnNext(this::record)
+                .count()
+                .subscribe(recovered -> {
+                    if (recovered > 0) {
+                        log.info("Re-posting points of {} unsettled finished games", recovered);
+                    }
+                }, error -> log.error("Recovery of unsettled games failed", error));
+        tableStore.findByTableStatusAndSettledFalse(GameStatus.FINISHED)
+                .doOnNext(this::record)
+                .count()
+                .subscribe(recovered -> {
+                    if (recovered > 0) {
+                        log.info("Re-posting points of {} unsettled table rounds", recovered);
+                    }
+                }, error -> log.error("Recovery of unsettled table rounds failed", error));
+
+        flusher = Flux.interval(properties.getFlushWindow())
+                .concatMap(tick -> flush()
+                        .onErrorResume(error -> {
+                            log.error("Points ledger flush failed, retrying next window", error);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (flusher != null) {
+            flusher.dispose();
+        }
+        flush().block(properties.getShutdownTimeout());
+    }
+
+    /**
+     * Queues the points of a game that has already been saved as FINISHED.
+     */
+    public synchronized void record(Game game) {
+        if (game.getGameStatus() != GameStatus.FINISHED || game.isSettled() || !pendingGames.add(game.getId())) {
+            return;
+        }
+        pendingPoints.merge(game.getPlayerId(), game.getPoints(), Integer::sum);
+    }
+
+    /**
+     * Queues the points of every seat of a table round that has already been saved as
+     * FINISHED, to be written in the same batch.
+     */
+    public synchronized void record(Table table) {
+        if (table.getTableStatus() != GameStatus.FINISHED || table.isSettled() || !pendingTables.add(table.getId())) {
+            return;
+        }
+        for (Seat seat : table.getSeats()) {
+            pendingPoints.merge(seat.getPlayerId(), seat.getPoints(), Integer::sum);
+        }
+    }
+
+    public Mono<Void> flush() {
+        Map<Integer, Integer> points;
+        Set<String> games;
+        Set<String> tables;
+        synchronized (this) {
+            if (pendingGames.isEmpty() && pendingTables.isEmpty()) {
+                return Mono.empty();
+            }
+            points = pendingPoints;
+            games = pendingGames;
+            tables = pendingTables;
+            pendingPoints = new HashMap<>();
+            pendingGames = new HashSet<>();
+            pendingTables = new HashSet<>();
+        }
+        // A failed markSettled leaves them unsettled, they are posted again on the next startup
+        return playerStore.addPointsBatch(points)
+                .doOnError(error -> requeue(points, games, tables))
+                .doOnSuccess(done -> points.forEach((playerId, delta) -> {
+                    playerCache.invalidate(playerId);
+                    leaderboard.addPoints(playerId, delta);
+                }))
+                .then(gameStore.markSettled(games))
+                .then(Flux.fromIterable(tables)
+                        .flatMap(this::markSettled)
+                        .then());
+    }
+
+    // Through the table's lane, so its cached copy sees the round settled too and a next
+    // round asked for right after the flush is dealt. Only a finished round is settled,
+    // never the one dealt after it.
+    private Mono<Table> markSettled(String tableId) {
+        return tableScheduler.submit(tableId, table -> {
+            if (table.getTableStatus() == GameStatus.FINISHED) {
+                table.setSettled(true);
+            }
+        });
+    }
+
+    private synchronized void requeue(Map<Integer, Integer> points, Set<String> games, Set<String> tables) {
+        points.forEach((playerId, delta) -> pendingPoints.merge(playerId, delta, Integer::sum));
+        pendingGames.addAll(games);
+        pendingTables.addAll(tables);
+    }
+}
@@ -0,0 +1,71 @@
+package blackjack.service;
+
+import blackjack.config.StreamProperties;
+import blackjack.model.dto.RankingDTO;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Changes of the top of the ranking, pushed to its subscribers. While anyone subscribes, the
+ * leaderboard is checked once per interval and its top is read only when it changed, once
+ * for all subscribers. Each subscriber gets the rows of its top N that changed since the
+ * last top it received; a slow one drops its oldest tops, so its next delta spans them.
+ */
+@Component
+public class RankingUpdates {
+
+    private final Flux<List<RankingDTO>> tops;
+    private final int bufferSize;
+
+    public RankingUpdates(Leaderboard leaderboard, StreamProperties properties) {
+        this.bufferSize = properties.getBufferSize();
+        this.tops = Flux.interval(Duration.ZERO, properties.getRankingInterval())
+                .map(tick -> leaderboard.changes())
+                .distinctUntilChanged()
+                .map(changes -> leaderboard.range(0, properties.getMaxRankingSize()))
+                .replay(1)
+                .refCount();
+    }
+
+    /**
+     * The top {@code size} at subscription, then the rows of it that changed. A row holds
+     * its rank, so a client keeps the top by replacing rows at their rank. When fewer players
+     * than before are in the top, the delta ends with a row of the first rank no longer in it,
+     * without a player: id 0 and no name. The client drops that rank and those after it.
+     */
+    public Flux<List<RankingDTO>> deltas(int size) {
+        return Flux.defer(() -> {
+            List<RankingDTO> last = new ArrayList<>();
+            return tops.onBackpressureBuffer(bufferSize, dropped -> {
+                    }, BufferOverflowStrategy.DROP_OLDEST)
+                    .map(top -> {
+                        List<RankingDTO> current = top.subList(0, Math.min(size, top.size()));
+                        List<RankingDTO> delta = new ArrayList<>();
+                        for (int rank = 0; rank < current.size(); rank++) {
+                            if (rank >= last.size() || !Objects.equals(last.get(rank), current.get(rank))) {
+                                delta.add(current.get(rank));
+                            }
+                        }
+                        // The top got shorter: a row with only a rank marks where it ends now
+                        if (current.size() < last.size()) {
+                            delta.add(endOfTop(current.size() + 1));
+                        }
+                        last.clear();
+                        last.addAll(current);
+                        return delta;
+                    })
+                    .filter(delta -> !delta.isEmpty());
+        });
+    }
+
+    // Player ids start at 1, so id 0 never names a player
+    private static RankingDTO endOfTop(int rank) {
+        return RankingDTO.builder().rank(rank).build();
+    }
+}
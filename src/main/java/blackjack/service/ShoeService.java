@@ -0,0 +1,104 @@
+package blackjack.service;
+
+import blackjack.config.ShoeProperties;
+import blackjack.model.Card;
+import blackjack.model.Shoe;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out shuffled shoes for new games and tables from a pool that is refilled in the
+ * background. Each shoe is cut at the configured penetration; a game that reaches the cut
+ * card gets a fresh shoe, which is how the reshuffle happens. Shoes are not shared between
+ * games, see {@link Shoe}.
+ */
+@Service
+public class ShoeService {
+
+    private static final int MAX_DECKS = 8;
+    // Two cards to the player, an up card and the hidden card to the dealer
+    private static final int DEAL_SIZE = 4;
+
+    private final SplittableRandom seeds = new SplittableRandom();
+    private final ThreadLocal<SplittableRandom> random = ThreadLocal.withInitial(this::splitSeed);
+
+    private final Queue<Shoe> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    private final int decks;
+    private final int cutCard;
+    private final int poolSize;
+    private final Scheduler shuffler = Schedulers.newSingle("shoe-shuffler", true);
+
+    public ShoeService(ShoeProperties properties) {
+        if (properties.getDecks() < 1 || properties.getDecks() > MAX_DECKS) {
+            throw new IllegalArgumentException("Shoe must hold between 1 and " + MAX_DECKS + " decks");
+        }
+        if (properties.getPenetration() <= 0 || properties.getPenetration() > 1) {
+            throw new IllegalArgumentException("Shoe penetration must be in (0, 1]");
+        }
+        this.decks = properties.getDecks();
+        this.cutCard = (int) Math.round(decks * Card.DECK_SIZE * properties.getPenetration());
+        if (cutCard < DEAL_SIZE) {
+            throw new IllegalArgumentException("Shoe penetration must leave at least " + DEAL_SIZE
+                    + " cards before the cut card to deal a game, it leaves " + cutCard);
+        }
+        this.poolSize = properties.getPoolSize();
+    }
+
+    @PostConstruct
+    void warmUp() {
+        scheduleRefill();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        shuffler.dispose();
+    }
+
+    public Shoe nextShoe() {
+        Shoe shoe = pool.poll();
+        if (shoe == null) {
+            shoe = shuffle();
+        } else {
+            pooled.decrementAndGet();
+        }
+        scheduleRefill();
+        return shoe;
+    }
+
+    private Shoe shuffle() {
+        return new Shoe(random.get().nextLong(), decks, cutCard, 0);
+    }
+
+    private void scheduleRefill() {
+        if (pooled.get() < poolSize / 2 && refilling.compareAndSet(false, true)) {
+            shuffler.schedule(this::refill);
+        }
+    }
+
+    private void refill() {
+        try {
+            while (pooled.get() < poolSize) {
+                pool.offer(shuffle());
+                pooled.incrementAndGet();
+            }
+        } finally {
+            refilling.set(false);
+        }
+    }
+
+    private synchronized SplittableRandom splitSeed() {
+        return seeds.split();
+    }
+}
@@ -0,0 +1,95 @@
+package blackjack.service;
+
+import blackjack.config.ShoeProperties;
+import blackjack.config.SimulationProperties;
+import blackjack.exception.InvalidRequestException;
+import blackjack.exception.SimulationsBusyException;
+import blackjack.model.dto.SimulationReportDTO;
+import blackjack.model.dto.SimulationRequestDTO;
+import blackjack.rules.BlackjackRules;
+import blackjack.rules.HitStrategy;
+import blackjack.simulation.SimulationStats;
+import blackjack.simulation.Simulator;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs simulation jobs on a dedicated fork-join pool, reporting cumulative statistics
+ * after each slice of the requested hands. Only a few jobs run at once, further requests
+ * are refused rather than queued, and a job whose client goes away stops at its next
+ * leaf task instead of playing out the slice.
+ */
+@Service
+public class SimulationService {
+
+    public static final long MAX_HANDS = 1_000_000_000L;
+    private static final int PROGRESS_REPORTS = 20;
+    private static final int MAX_DECKS = 8;
+
+    private final ShoeProperties shoeProperties;
+    private final Semaphore jobs;
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    public SimulationService(ShoeProperties shoeProperties, SimulationProperties simulationProperties) {
+        this.shoeProperties = shoeProperties;
+        this.jobs = new Semaphore(simulationProperties.getMaxConcurrentJobs());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Signals {@link InvalidRequestException} when the request is out of bounds and
+     * {@link SimulationsBusyException} when the running jobs are at the limit, before
+     * anything runs.
+     */
+    public Flux<SimulationReportDTO> simulate(SimulationRequestDTO request) {
+        int decks = request.getDecks() != null ? request.getDecks() : shoeProperties.getDecks();
+        double penetration = request.getPenetration() != null ? request.getPenetration() : shoeProperties.getPenetration();
+        if (request.getHands() < 1 || request.getHands() > MAX_HANDS || decks < 1 || decks > MAX_DECKS
+                || penetration <= 0 || penetration > 1 || request.getStandOn() > BlackjackRules.BLACKJACK) {
+            return Flux.error(new InvalidRequestException("Invalid simulation parameters"));
+        }
+        return Flux.defer(() -> {
+            if (!jobs.tryAcquire()) {
+                return Flux.error(SimulationsBusyException.INSTANCE);
+            }
+            AtomicBoolean cancelled = new AtomicBoolean();
+            return run(request, decks, penetration, cancelled::get)
+                    .doOnCancel(() -> cancelled.set(true))
+                    .doFinally(signal -> jobs.release());
+        });
+    }
+
+    private Flux<SimulationReportDTO> run(SimulationRequestDTO request, int decks, double penetration,
+                                          BooleanSupplier cancelled) {
+        Simulator simulator = new Simulator(decks, penetration, HitStrategy.standOn(request.getStandOn()));
+        SplittableRandom seeds = request.getSeed() != null ? new SplittableRandom(request.getSeed()) : new SplittableRandom();
+        long hands = request.getHands();
+        long slice = (hands + PROGRESS_REPORTS - 1) / PROGRESS_REPORTS;
+        int slices = (int) ((hands + slice - 1) / slice);
+
+        return Flux.range(0, slices)
+                .map(index -> Math.min(slice, hands - index * slice))
+                .concatMap(sliceHands -> Mono.fromCallable(() -> simulator.run(sliceHands, seeds.split(), pool, cancelled))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .scan(new SimulationStats(), SimulationStats::plus)
+                .skip(1)
+                .map(stats -> SimulationReportDTO.builder()
+                        .handsRequested(hands)
+                        .done(stats.getHands() == hands)
+                        .stats(stats)
+                        .build());
+    }
+}
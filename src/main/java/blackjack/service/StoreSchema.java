@@ -0,0 +1,44 @@
+package blackjack.service;
+
+import blackjack.config.ArchiveProperties;
+import blackjack.config.StorageProperties;
+import blackjack.store.GameJournalStore;
+import blackjack.store.GameStore;
+import blackjack.store.PlayerStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Prepares the game, journal and player stores once every bean is created, before the web
+ * server starts, so recovery and the first requests already find their indexes. Startup
+ * fails if an index is missing, rather than every query scanning more as the data grows,
+ * or, for the journal, concurrent moves from the same version both being committed. Games
+ * written with their cards as suit and value documents are then rewritten in the binary card
+ * form, before anything reads them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoreSchema implements SmartInitializingSingleton {
+
+    private final GameStore gameStore;
+    private final GameJournalStore gameJournalStore;
+    private final PlayerStore playerStore;
+    private final ShoeService shoeService;
+    private final StorageProperties properties;
+    private final ArchiveProperties archiveProperties;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Mono.when(gameStore.prepare(), gameJournalStore.prepare(archiveProperties.getTtl()), playerStore.prepare())
+                .block(properties.getSchemaTimeout());
+        log.info("Store indexes are in place");
+        Long migrated = gameStore.migrateCardEncoding(shoeService::nextShoe).block(properties.getSchemaTimeout());
+        if (migrated != null && migrated > 0) {
+            log.info("Migrated {} games to binary cards", migrated);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package blackjack.service;
+
+import blackjack.exception.TableConflictException;
+import blackjack.model.Table;
+import blackjack.store.TableStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Applies the changes of each table one at a time in arrival order, so the seats of a
+ * table never conflict with each other. Changes queued while a table is being written are
+ * applied together to one copy and written with one conditional replace. A table is read
+ * once per burst of changes and kept while changes keep coming; its lane is dropped when
+ * idle. The version check of the write only fails against another instance.
+ */
+@Component
+@RequiredArgsConstructor
+public class TableScheduler {
+
+    private final TableStore tableStore;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    private record Change(Consumer<Table> apply, MonoSink<Table> done) {
+    }
+
+    private static final class Lane {
+        private final Queue<Change> changes = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean running = new AtomicBoolean();
+        // The table as last written, only touched by the running batch
+        private Table table;
+    }
+
+    /**
+     * Applies {@code change} to the table after the changes submitted before it, and
+     * completes with the table as written. A change checks everything before it modifies
+     * the table and throws to fail, which fails it alone. Completes empty if there is no
+     * such table.
+     */
+    public Mono<Table> submit(String tableId, Consumer<Table> change) {
+        return Mono.create(done -> {
+            Lane lane = lanes.compute(tableId, (id, current) -> {
+                Lane queued = current != null ? current : new Lane();
+                queued.changes.add(new Change(change, done));
+                return queued;
+            });
+            run(tableId, lane);
+        });
+    }
+
+    private void run(String tableId, Lane lane) {
+        if (lane.changes.isEmpty() || !lane.running.compareAndSet(false, true)) {
+            return;
+        }
+        List<Change> batch = new ArrayList<>();
+        Change next;
+        while ((next = lane.changes.poll()) != null) {
+            batch.add(next);
+        }
+        RuntimeException[] failures = new RuntimeException[batch.size()];
+        Mono.justOrEmpty(lane.table)
+                .switchIfEmpty(Mono.defer(() -> tableStore.findById(tableId)))
+                .flatMap(current -> apply(current, batch, failures))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .subscribe(written -> {
+                    lane.table = written.orElse(null);
+                    release(tableId, lane);
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (failures[i] != null) {
+                            batch.get(i).done().error(failures[i]);
+                        } else {
+                            batch.get(i).done().success(written.orElse(null));
+                        }
+                    }
+                }, error -> {
+                    lane.table = null;
+                    release(tableId, lane);
+                    batch.forEach(change -> change.done().error(error));
+                });
+    }
+
+    // Applies the changes to a copy, keeping the failure of each change that threw
+    private Mono<Table> apply(Table current, List<Change> batch, RuntimeException[] failures) {
+        Table next = copy(current);
+        boolean changed = false;
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                batch.get(i).apply().accept(next);
+                next.setVersion(next.getVersion() + 1);
+                changed = true;
+            } catch (RuntimeException e) {
+                failures[i] = e;
+            }
+        }
+        if (!changed) {
+            return Mono.just(current);
+        }
+        return tableStore.updateIfVersion(next, current.getVersion())
+                .switchIfEmpty(Mono.error(() -> new TableConflictException("Table " + current.getId() + " was modified concurrently")));
+    }
+
+    // Drops an idle lane, or runs the changes queued meanwhile off this thread
+    private void release(String tableId, Lane lane) {
+        lane.running.set(false);
+        lanes.computeIfPresent(tableId, (id, current) ->
+                current == lane && current.changes.isEmpty() && !current.running.get() ? null : current);
+        if (!lane.changes.isEmpty()) {
+            Schedulers.parallel().schedule(() -> run(tableId, lane));
+        }
+    }
+
+    // Written tables are shared by readers, a batch is applied to a copy
+    private static Table copy(Table table) {
+        return table.toBuilder()
+                .seats(new ArrayList<>(table.getSeats().stream()
+                        .map(seat -> seat.toBuilder().cards(seat.getCards().copy()).build())
+                        .toList()))
+                .dealerCards(table.getDealerCards().copy())
+                .deck(table.getDeck().copy())
+                .build();
+    }
+}
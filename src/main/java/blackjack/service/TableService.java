@@ -0,0 +1,182 @@
+package blackjack.service;
+
+import blackjack.exception.InvalidRequestException;
+import blackjack.exception.TableConflictException;
+import blackjack.metrics.GameMetrics;
+import blackjack.model.Card;
+import blackjack.model.CardPile;
+import blackjack.model.Seat;
+import blackjack.model.Table;
+import blackjack.model.enums.GameStatus;
+import blackjack.model.enums.MoveType;
+import blackjack.model.enums.Participant;
+import blackjack.model.enums.SeatStatus;
+import blackjack.rules.BlackjackRules;
+import blackjack.rules.Outcome;
+import blackjack.store.TableStore;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rounds of multi-seat tables: every seat plays its hand against one dealer hand, all
+ * dealt from the table's shoe, and the dealer plays once when the last seat is done.
+ * Changes go through the {@link TableScheduler}, so they are applied one at a time per table.
+ */
+@Service
+@RequiredArgsConstructor
+public class TableService {
+
+    public static final int MAX_SEATS = 7;
+
+    private static final String SERVICE = "table";
+
+    private final TableStore tableStore;
+    private final TableScheduler tableScheduler;
+    private final ShoeService shoeService;
+    private final PlayerService playerService;
+    private final PointsLedger pointsLedger;
+    private final GameMetrics gameMetrics;
+
+    /**
+     * Seats the players in order, one seat each (a player may take several), and deals the
+     * first round. Fails with {@link blackjack.exception.PlayerNotFoundException} for an unknown player.
+     */
+    public Mono<Table> createTable(List<Integer> playerIds) {
+        return gameMetrics.timedService(SERVICE, "createTable", Flux.fromIterable(playerIds)
+                .concatMap(playerService::getPlayerById)
+                .then(Mono.defer(() -> {
+                    Table table = Table.builder()
+                            .id(ObjectId.get().toHexString())
+                            .seats(playerIds.stream()
+                                    .map(playerId -> Seat.builder().playerId(playerId).build())
+                                    .toList())
+                            .deck(shoeService.nextShoe())
+                            .createdAt(Instant.now())
+                            .build();
+                    deal(table);
+                    return tableStore.insert(table);
+                })));
+    }
+
+    public Mono<Table> getTable(String tableId) {
+        return tableStore.findById(tableId);
+    }
+
+    /**
+     * Applies a move to a seat of the current round. Fails with {@link TableConflictException}
+     * when the round is over or the seat has stood or bust, and with
+     * {@link InvalidRequestException} for a seat the table does not have.
+     */
+    public Mono<Table> playerMove(String tableId, int seat, MoveType move) {
+        // Only the move that finishes the round posts its points, later ones see it settled
+        boolean[] finished = {false};
+        return gameMetrics.timedService(SERVICE, "playerMove", tableScheduler.submit(tableId, table -> {
+                    Seat player = seatOf(table, seat);
+                    switch (move) {
+                        case HIT -> {
+                            player.getCards().add(drawCard(table));
+                            if (BlackjackRules.isBust(BlackjackRules.handScore(player.getCards()))) {
+                                player.setStatus(SeatStatus.BUST);
+                            }
+                        }
+                        case STAND -> player.setStatus(SeatStatus.STOOD);
+                    }
+                    if (table.getSeats().stream().noneMatch(other -> other.getStatus() == SeatStatus.PLAYING)) {
+                        playDealer(table);
+                        finished[0] = true;
+                    }
+                }))
+                .doOnNext(table -> {
+                    if (finished[0]) {
+                        pointsLedger.record(table);
+                    }
+                });
+    }
+
+    /**
+     * Deals the next round from the same shoe, once the last round is finished and its
+     * points are settled. Pending points are flushed first, so a round can follow at once.
+     */
+    public Mono<Table> nextRound(String tableId) {
+        return gameMetrics.timedService(SERVICE, "nextRound", pointsLedger.flush()
+                .onErrorComplete()
+                .then(tableScheduler.submit(tableId, table -> {
+                    if (table.getTableStatus() != GameStatus.FINISHED) {
+                        throw new TableConflictException("Round " + table.getRound() + " of table " + tableId + " is still in play");
+                    }
+                    if (!table.isSettled()) {
+                        throw new TableConflictException("Round " + table.getRound() + " of table " + tableId + " is still being settled");
+                    }
+                    deal(table);
+                })));
+    }
+
+    private Seat seatOf(Table table, int seat) {
+        if (seat < 0 || seat >= table.getSeats().size()) {
+            throw new InvalidRequestException("Table " + table.getId() + " has no seat " + seat);
+        }
+        if (table.getTableStatus() != GameStatus.ACTIVE) {
+            throw new TableConflictException("Round " + table.getRound() + " of table " + table.getId() + " is over");
+        }
+        Seat player = table.getSeats().get(seat);
+        if (player.getStatus() != SeatStatus.PLAYING) {
+            throw new TableConflictException("Seat " + seat + " of table " + table.getId() + " is " + player.getStatus());
+        }
+        return player;
+    }
+
+    // One card to each seat, the dealer's up card, a second card to each seat, then the hidden card
+    private void deal(Table table) {
+        List<Card> firstCards = new ArrayList<>(table.getSeats().size());
+        for (int i = 0; i < table.getSeats().size(); i++) {
+            firstCards.add(drawCard(table));
+        }
+        table.setDealerCards(CardPile.of(drawCard(table)));
+        for (int i = 0; i < table.getSeats().size(); i++) {
+            Seat seat = table.getSeats().get(i);
+            seat.setCards(CardPile.of(firstCards.get(i), drawCard(table)));
+            seat.setStatus(SeatStatus.PLAYING);
+            seat.setWinner(Participant.NONE);
+            seat.setPoints(0);
+        }
+        table.setHiddenCard(drawCard(table));
+        table.setTableStatus(GameStatus.ACTIVE);
+        table.setRound(table.getRound() + 1);
+        table.setSettled(false);
+        table.setFinishedAt(null);
+    }
+
+    // The dealer only draws if a seat is left to beat
+    private void playDealer(Table table) {
+        table.getDealerCards().add(table.getHiddenCard());
+        boolean standing = table.getSeats().stream().anyMatch(seat -> seat.getStatus() == SeatStatus.STOOD);
+        while (standing && BlackjackRules.dealerDraws(BlackjackRules.handScore(table.getDealerCards()))) {
+            table.getDealerCards().add(drawCard(table));
+        }
+        int dealerScore = BlackjackRules.handScore(table.getDealerCards());
+        for (Seat seat : table.getSeats()) {
+            Outcome outcome = seat.getStatus() == SeatStatus.BUST
+                    ? Outcome.LOSS
+                    : BlackjackRules.settle(BlackjackRules.handScore(seat.getCards()), dealerScore);
+            seat.setWinner(outcome.getWinner());
+            seat.setPoints(outcome.getPoints());
+        }
+        table.setTableStatus(GameStatus.FINISHED);
+        table.setFinishedAt(Instant.now());
+    }
+
+    // Reaching the cut card reshuffles: the round continues on a fresh shoe
+    private Card drawCard(Table table) {
+        if (table.getDeck() == null || table.getDeck().isEmpty()) {
+            table.setDeck(shoeService.nextShoe());
+        }
+        return table.getDeck().draw();
+    }
+}
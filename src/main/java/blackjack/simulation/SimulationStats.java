@@ -0,0 +1,74 @@
+package blackjack.simulation;
+
+import blackjack.rules.Outcome;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Aggregated results of simulated hands; points follow {@link Outcome#getPoints()}.
+ */
+@Getter
+@ToString
+public class SimulationStats {
+
+    private long hands;
+    private long wins;
+    private long losses;
+    private long ties;
+    private long playerBusts;
+    private long dealerBusts;
+    private long points;
+
+    void record(Outcome outcome, boolean playerBust, boolean dealerBust) {
+        hands++;
+        switch (outcome) {
+            case WIN -> wins++;
+            case LOSS -> losses++;
+            case TIE -> ties++;
+        }
+        if (playerBust) playerBusts++;
+        if (dealerBust) dealerBusts++;
+        points += outcome.getPoints();
+    }
+
+    public SimulationStats plus(SimulationStats other) {
+        SimulationStats sum = new SimulationStats();
+        sum.hands = hands + other.hands;
+        sum.wins = wins + other.wins;
+        sum.losses = losses + other.losses;
+        sum.ties = ties + other.ties;
+        sum.playerBusts = playerBusts + other.playerBusts;
+        sum.dealerBusts = dealerBusts + other.dealerBusts;
+        sum.points = points + other.points;
+        return sum;
+    }
+
+    // Expected points per hand
+    public double getExpectedValue() {
+        return rate(points);
+    }
+
+    public double getWinRate() {
+        return rate(wins);
+    }
+
+    public double getLossRate() {
+        return rate(losses);
+    }
+
+    public double getTieRate() {
+        return rate(ties);
+    }
+
+    public double getPlayerBustRate() {
+        return rate(playerBusts);
+    }
+
+    public double getDealerBustRate() {
+        return rate(dealerBusts);
+    }
+
+    private double rate(long count) {
+        return hands == 0 ? 0 : (double) count / hands;
+    }
+}
@@ -0,0 +1,150 @@
+package blackjack.simulation;
+
+import blackjack.model.Card;
+import blackjack.rules.BlackjackRules;
+import blackjack.rules.HitStrategy;
+import blackjack.rules.Outcome;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Plays hands with the live game rules ({@link BlackjackRules}) on primitive card codes,
+ * in parallel on a fork-join pool. Every leaf task owns its PRNG, split from the
+ * caller's, and a single shoe array reused by all its hands. A cancelled run stops at the
+ * next leaf task, the leaves not started yet play no hands.
+ */
+public class Simulator {
+
+    private static final long HANDS_PER_LEAF = 50_000;
+
+    private final int decks;
+    private final double penetration;
+    private final HitStrategy strategy;
+
+    public Simulator(int decks, double penetration, HitStrategy strategy) {
+        this.decks = decks;
+        this.penetration = penetration;
+        this.strategy = strategy;
+    }
+
+    public SimulationStats run(long hands, long seed) {
+        return run(hands, new SplittableRandom(seed), ForkJoinPool.commonPool(), () -> false);
+    }
+
+    public SimulationStats run(long hands, SplittableRandom random, ForkJoinPool pool, BooleanSupplier cancelled) {
+        return pool.invoke(new SimulationTask(hands, random, cancelled));
+    }
+
+    private SimulationStats playHands(long hands, SplittableRandom random) {
+        Shoe shoe = new Shoe(decks, penetration, random);
+        SimulationStats stats = new SimulationStats();
+        for (long hand = 0; hand < hands; hand++) {
+            playHand(shoe, stats);
+        }
+        return stats;
+    }
+
+    // Same deal and turn order as GameService: two player cards, the up card, the hidden card
+    private void playHand(Shoe shoe, SimulationStats stats) {
+        shoe.reshuffle(); // every live game starts on a fresh shoe
+        int first = shoe.draw();
+        int second = shoe.draw();
+        int upCard = shoe.draw();
+        int hiddenCard = shoe.draw();
+
+        int playerHard = BlackjackRules.hardValue(first) + BlackjackRules.hardValue(second);
+        boolean playerAce = BlackjackRules.isAce(first) || BlackjackRules.isAce(second);
+        int dealerUpScore = BlackjackRules.score(BlackjackRules.hardValue(upCard), BlackjackRules.isAce(upCard));
+
+        int playerScore = BlackjackRules.score(playerHard, playerAce);
+        while (!BlackjackRules.isBust(playerScore)
+                && strategy.hit(playerScore, BlackjackRules.isSoft(playerHard, playerAce), dealerUpScore)) {
+            int card = shoe.draw();
+            playerHard += BlackjackRules.hardValue(card);
+            playerAce |= BlackjackRules.isAce(card);
+            playerScore = BlackjackRules.score(playerHard, playerAce);
+        }
+        if (BlackjackRules.isBust(playerScore)) {
+            stats.record(Outcome.LOSS, true, false);
+            return;
+        }
+
+        int dealerHard = BlackjackRules.hardValue(upCard) + BlackjackRules.hardValue(hiddenCard);
+        boolean dealerAce = BlackjackRules.isAce(upCard) || BlackjackRules.isAce(hiddenCard);
+        int dealerScore = BlackjackRules.score(dealerHard, dealerAce);
+        while (BlackjackRules.dealerDraws(dealerScore)) {
+            int card = shoe.draw();
+            dealerHard += BlackjackRules.hardValue(card);
+            dealerAce |= BlackjackRules.isAce(card);
+            dealerScore = BlackjackRules.score(dealerHard, dealerAce);
+        }
+        stats.record(BlackjackRules.settle(playerScore, dealerScore), false, BlackjackRules.isBust(dealerScore));
+    }
+
+    private final class SimulationTask extends RecursiveTask<SimulationStats> {
+
+        private final long hands;
+        private final SplittableRandom random;
+        private final BooleanSupplier cancelled;
+
+        private SimulationTask(long hands, SplittableRandom random, BooleanSupplier cancelled) {
+            this.hands = hands;
+            this.random = random;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected SimulationStats compute() {
+            if (cancelled.getAsBoolean()) {
+                return new SimulationStats();
+            }
+            if (hands <= HANDS_PER_LEAF) {
+                return playHands(hands, random);
+            }
+            SimulationTask left = new SimulationTask(hands / 2, random.split(), cancelled);
+            SimulationTask right = new SimulationTask(hands - hands / 2, random, cancelled);
+            left.fork();
+            SimulationStats stats = right.compute();
+            return stats.plus(left.join());
+        }
+    }
+
+    /**
+     * Shoe of card codes dealt by drawing a random card among those not dealt yet,
+     * which is a lazy shuffle: only the dealt cards are ever moved.
+     */
+    private static final class Shoe {
+
+        private final byte[] codes;
+        private final int cutCard;
+        private final SplittableRandom random;
+        private int dealt;
+
+        private Shoe(int decks, double penetration, SplittableRandom random) {
+            this.codes = new byte[decks * Card.DECK_SIZE];
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = (byte) (i % Card.DECK_SIZE);
+            }
+            this.cutCard = (int) Math.round(codes.length * penetration);
+            this.random = random;
+        }
+
+        private void reshuffle() {
+            dealt = 0;
+        }
+
+        private int draw() {
+            if (dealt == cutCard) {
+                reshuffle();
+            }
+            int pick = dealt + random.nextInt(codes.length - dealt);
+            byte card = codes[pick];
+            codes[pick] = codes[dealt];
+            codes[dealt++] = card;
+            return card;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package blackjack.store;
+
+import blackjack.model.ArchivedGame;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Storage of archived games, expired a fixed time after they finished.
+ */
+public interface GameHistoryStore {
+
+    /**
+     * Stores the archived games, replacing any game archived before, so a batch
+     * interrupted before its games were deleted can be archived again.
+     */
+    Mono<Void> upsertAll(Collection<ArchivedGame> games);
+
+    /**
+     * A page of a player's games, newest first, starting after the game {@code before}
+     * (the last game of the previous page) or from the newest game when it is null.
+     */
+    Flux<ArchivedGame> findHistory(int playerId, String before, int limit);
+
+    /**
+     * Prepares the store to serve history pages and to expire games {@code ttl} after
+     * they finished, changing the TTL if the store was prepared with another one.
+     */
+    Mono<Void> prepare(Duration ttl);
+}
@@ -0,0 +1,37 @@
+package blackjack.store;
+
+import blackjack.model.GameJournalEntry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Append-only storage of game journals, kept for audits after the game itself is archived
+ * and expired a fixed time after their last entry.
+ */
+public interface GameJournalStore {
+
+    /**
+     * Appends the entries in one write, each on its own: an entry for a version its game
+     * already has is rejected without failing the others. Completes with the positions of
+     * the rejected entries in {@code entries}.
+     */
+    Mono<Set<Integer>> appendAll(List<GameJournalEntry> entries);
+
+    /**
+     * The entries of a game after {@code afterVersion}, in version order.
+     */
+    Flux<GameJournalEntry> findByGameId(String gameId, long afterVersion);
+
+    Mono<Void> deleteByGameId(String gameId);
+
+    /**
+     * Prepares the store to append and to expire journals {@code ttl} after their entries
+     * were written, changing the TTL if the store was prepared with another one. Fails if
+     * the store cannot reject a second entry for the same game and version.
+     */
+    Mono<Void> prepare(Duration ttl);
+}
@@ -0,0 +1,65 @@
+package blackjack.store;
+
+import blackjack.model.Game;
+import blackjack.model.Shoe;
+import blackjack.model.enums.GameStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Storage of games in play and of finished games waiting to be archived. Stored games
+ * are treated as immutable, a change stores a new instance.
+ */
+public interface GameStore {
+
+    Mono<Game> findById(String gameId);
+
+    Mono<Game> insert(Game game);
+
+    /**
+     * Replaces an ACTIVE game, only if the stored game is still ACTIVE at
+     * {@code expectedVersion}. Completes empty on a conflict.
+     */
+    Mono<Game> updateIfVersion(Game game, long expectedVersion);
+
+    Mono<Void> deleteById(String gameId);
+
+    Flux<Game> findByGameStatusAndSettledFalse(GameStatus gameStatus);
+
+    /**
+     * Flags finished games whose points have been written to the player store.
+     */
+    Mono<Void> markSettled(Collection<String> gameIds);
+
+    /**
+     * Finished games whose points are settled, ready to be archived. Their deck and
+     * hidden card may be left out.
+     */
+    Flux<Game> findSettled(int limit);
+
+    /**
+     * Removes archived games, only if they are still finished and settled.
+     */
+    Mono<Long> deleteSettled(Collection<String> gameIds);
+
+    /**
+     * Upgrades games written by older versions so they reference their player by id.
+     * Completes with the number of games rewritten.
+     */
+    Mono<Long> migratePlayerReferences();
+
+    /**
+     * Upgrades games written by older versions with their cards as suit and value documents
+     * to the binary card form. Games still in play deal on from a fresh shoe of {@code shoes}.
+     * Completes with the number of games rewritten.
+     */
+    Mono<Long> migrateCardEncoding(Supplier<Shoe> shoes);
+
+    /**
+     * Creates the indexes the queries of the store rely on. Fails if one is missing after.
+     */
+    Mono<Void> prepare();
+}
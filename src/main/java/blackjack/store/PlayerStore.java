@@ -0,0 +1,38 @@
+package blackjack.store;
+
+import blackjack.model.Player;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Storage of players, keyed by an id the store assigns on the first save.
+ */
+public interface PlayerStore {
+
+    Mono<Player> findById(int playerId);
+
+    Mono<Player> findByName(String name);
+
+    Flux<Player> findAll();
+
+    Mono<Player> save(Player player);
+
+    /**
+     * Changes only the name of a player, leaving its points as they are in the store.
+     * Completes with the player after the change, or empty if there is no such player.
+     */
+    Mono<Player> rename(int playerId, String name);
+
+    /**
+     * Applies every points delta, keyed by player id, as one batch of atomic increments.
+     */
+    Mono<Void> addPointsBatch(Map<Integer, Integer> deltas);
+
+    /**
+     * Fails if the store lacks an index its queries rely on, above all the unique index on
+     * the name that decides races between creates and renames.
+     */
+    Mono<Void> prepare();
+}
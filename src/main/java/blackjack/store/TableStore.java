@@ -0,0 +1,25 @@
+package blackjack.store;
+
+import blackjack.model.Table;
+import blackjack.model.enums.GameStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Storage of multi-seat tables, one record per table. Stored tables are treated as
+ * immutable, a change stores a new instance.
+ */
+public interface TableStore {
+
+    Mono<Table> findById(String tableId);
+
+    Mono<Table> insert(Table table);
+
+    /**
+     * Replaces the table, only if the stored table is still at {@code expectedVersion}.
+     * Completes empty on a conflict.
+     */
+    Mono<Table> updateIfVersion(Table table, long expectedVersion);
+
+    Flux<Table> findByTableStatusAndSettledFalse(GameStatus tableStatus);
+}
@@ -0,0 +1,155 @@
+package blackjack.store.memory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Snapshot and journal files of the in-process store, in generations. Snapshot N holds
+ * the state written to every journal before N, journal N the changes made since
+ * snapshot N was started. A checkpoint moves writes to a new journal first, then writes
+ * the next snapshot while writes go on, and only then deletes the older files.
+ * <p>
+ * Stores change an entity and journal it under the same stripe lock, and the snapshot
+ * is read after the switch of journals. Every change in an older journal is therefore in
+ * the snapshot, while a change made during the snapshot may be in both, which is
+ * harmless since records hold whole entities.
+ */
+final class Journal implements Closeable {
+
+    private static final Pattern FILE_NAME = Pattern.compile("(journal|snapshot)-(\\d+)\\.(log|bin)");
+
+    private final Path directory;
+    private final long regionSize;
+    private final Object checkpointLock = new Object();
+    private MappedFile journal;
+    private long generation;
+
+    Journal(Path directory, long regionSize) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.regionSize = regionSize;
+    }
+
+    interface Snapshot {
+        void write(Sink sink) throws IOException;
+    }
+
+    interface Sink {
+        void append(byte[] record) throws IOException;
+    }
+
+    /**
+     * Replays the latest snapshot, then every journal written after it, in order.
+     * Returns the number of records replayed.
+     */
+    long recover(MappedFile.RecordHandler handler) throws IOException {
+        deleteIf(path -> path.getFileName().toString().endsWith(".tmp"));
+        long snapshot = -1;
+        long latest = -1;
+        for (Path path : list()) {
+            Matcher name = FILE_NAME.matcher(path.getFileName().toString());
+            if (name.matches()) {
+                long fileGeneration = Long.parseLong(name.group(2));
+                latest = Math.max(latest, fileGeneration);
+                if (name.group(1).equals("snapshot")) {
+                    snapshot = Math.max(snapshot, fileGeneration);
+                }
+            }
+        }
+        long records = 0;
+        if (snapshot >= 0) {
+            records += MappedFile.read(snapshotPath(snapshot), handler);
+        }
+        for (long journalGeneration = Math.max(snapshot, 0); journalGeneration <= latest; journalGeneration++) {
+            Path path = journalPath(journalGeneration);
+            if (Files.exists(path)) {
+                records += MappedFile.read(path, handler);
+            }
+        }
+        synchronized (this) {
+            generation = latest;
+        }
+        return records;
+    }
+
+    synchronized void append(byte[] record) {
+        if (journal == null) {
+            throw new IllegalStateException("Journal is not open, storage is recovering or closed");
+        }
+        try {
+            journal.append(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal write to " + journal.path() + " failed", e);
+        }
+    }
+
+    /**
+     * Starts a new journal and writes a snapshot, after which older files are deleted.
+     */
+    void checkpoint(Snapshot snapshot) throws IOException {
+        synchronized (checkpointLock) {
+            long next;
+            MappedFile previous;
+            synchronized (this) {
+                next = generation + 1;
+                previous = journal;
+                journal = MappedFile.create(journalPath(next), regionSize);
+                generation = next;
+            }
+            if (previous != null) {
+                previous.close();
+            }
+
+            Path temporary = directory.resolve(snapshotPath(next).getFileName() + ".tmp");
+            try (MappedFile file = MappedFile.create(temporary, regionSize)) {
+                snapshot.write(file::append);
+            }
+            Files.move(temporary, snapshotPath(next), StandardCopyOption.ATOMIC_MOVE);
+
+            deleteIf(path -> {
+                Matcher name = FILE_NAME.matcher(path.getFileName().toString());
+                return name.matches() && Long.parseLong(name.group(2)) < next;
+            });
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (journal != null) {
+                journal.close();
+                journal = null;
+            }
+        }
+    }
+
+    private Path journalPath(long fileGeneration) {
+        return directory.resolve(String.format("journal-%012d.log", fileGeneration));
+    }
+
+    private Path snapshotPath(long fileGeneration) {
+        return directory.resolve(String.format("snapshot-%012d.bin", fileGeneration));
+    }
+
+    private List<Path> list() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+
+    private void deleteIf(Predicate<Path> filter) throws IOException {
+        for (Path path : list()) {
+            if (filter.test(path)) {
+                Files.delete(path);
+            }
+        }
+    }
+}
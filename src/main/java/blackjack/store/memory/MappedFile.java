@@ -0,0 +1,118 @@
+package blackjack.store.memory;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * An append-only file of checksummed records, written through memory-mapped regions.
+ * A record is its length, the CRC32C of its payload and the payload. The unwritten end of
+ * the last region reads as zeros, which ends the file for the reader, and so does a torn
+ * record left by a crash.
+ */
+@Slf4j
+final class MappedFile implements Closeable {
+
+    private static final int HEADER = Integer.BYTES * 2;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long regionSize;
+    private final CRC32C crc = new CRC32C();
+    private MappedByteBuffer region;
+    private long position;
+
+    private MappedFile(Path path, long regionSize) throws IOException {
+        this.path = path;
+        this.regionSize = regionSize;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    static MappedFile create(Path path, long regionSize) throws IOException {
+        return new MappedFile(path, regionSize);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    // Callers serialize appends
+    void append(byte[] payload) throws IOException {
+        int length = HEADER + payload.length;
+        if (region == null || region.remaining() < length) {
+            // The next region starts right after the last record, records never straddle regions
+            region = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(regionSize, length));
+        }
+        crc.reset();
+        crc.update(payload);
+        region.putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload);
+        position += length;
+    }
+
+    void force() throws IOException {
+        if (region != null) {
+            region.force();
+        }
+        channel.force(true);
+    }
+
+    /**
+     * Forces the records to disk and cuts the file after the last one.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            force();
+            region = null;
+            channel.truncate(position);
+        } finally {
+            channel.close();
+        }
+    }
+
+    interface RecordHandler {
+        void handle(DataInputStream payload) throws IOException;
+    }
+
+    /**
+     * Reads every intact record in order, returns how many were read.
+     */
+    static long read(Path path, RecordHandler handler) throws IOException {
+        long records = 0;
+        CRC32C crc = new CRC32C();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            while (true) {
+                int length = in.readInt();
+                if (length <= 0) {
+                    return records;
+                }
+                int checksum = in.readInt();
+                byte[] payload = in.readNBytes(length);
+                crc.reset();
+                crc.update(payload);
+                if (payload.length < length || (int) crc.getValue() != checksum) {
+                    log.warn("Ignoring torn record at the end of {} after {} records", path, records);
+                    return records;
+                }
+                handler.handle(new DataInputStream(new ByteArrayInputStream(payload)));
+                records++;
+            }
+        } catch (EOFException end) {
+            // A file closed cleanly is cut right after its last record
+            return records;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package blackjack.store.memory;
+
+import blackjack.model.ArchivedGame;
+import blackjack.store.GameHistoryStore;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Archived games by id, indexed per player by id, which orders them by creation since
+ * game ids are ObjectIds. Games past the TTL are removed by {@link #expire(Instant)}.
+ */
+final class MemoryGameHistoryStore implements GameHistoryStore {
+
+    private final StripedMap<String, ArchivedGame> games;
+    private final Map<Integer, NavigableMap<String, ArchivedGame>> gamesByPlayer = new ConcurrentHashMap<>();
+    private final Journal journal;
+    private volatile Duration ttl;
+
+    MemoryGameHistoryStore(Journal journal, int stripes) {
+        this.journal = journal;
+        this.games = new StripedMap<>(stripes);
+    }
+
+    @Override
+    public Mono<Void> upsertAll(Collection<ArchivedGame> archived) {
+        return Mono.fromRunnable(() -> archived.forEach(game -> games.update(game.getId(), current -> game, (previous, next) -> {
+            index(previous, next);
+            journal.append(Records.archivedGame(next));
+        })));
+    }
+
+    @Override
+    public Flux<ArchivedGame> findHistory(int playerId, String before, int limit) {
+        return Flux.defer(() -> {
+            NavigableMap<String, ArchivedGame> history = gamesByPlayer.get(playerId);
+            if (history == null) {
+                return Flux.empty();
+            }
+            NavigableMap<String, ArchivedGame> page = before == null ? history : history.headMap(before, false);
+            return Flux.fromIterable(page.descendingMap().values()).take(limit);
+        });
+    }
+
+    @Override
+    public Mono<Void> prepare(Duration ttl) {
+        return Mono.fromRunnable(() -> {
+            this.ttl = ttl;
+            expire(Instant.now());
+        });
+    }
+
+    /**
+     * Removes the games that finished more than the TTL before {@code now}.
+     */
+    void expire(Instant now) {
+        Duration expiry = ttl;
+        if (expiry == null) {
+            return;
+        }
+        Instant cutoff = now.minus(expiry);
+        for (ArchivedGame game : games.values()) {
+            if (game.getFinishedAt().isBefore(cutoff)) {
+                games.update(game.getId(), current -> current != null && current.getFinishedAt().isBefore(cutoff) ? null : current,
+                        (previous, next) -> {
+                            index(previous, null);
+                            journal.append(Records.deleted(Records.ARCHIVED_GAME_DELETED, previous.getId()));
+                        });
+            }
+        }
+    }
+
+    int size() {
+        return games.size();
+    }
+
+    void replay(byte type, DataInput in) throws IOException {
+        if (type == Records.ARCHIVED_GAME) {
+            ArchivedGame game = Records.readArchivedGame(in);
+            index(games.get(game.getId()), game);
+            games.restore(game.getId(), game);
+        } else {
+            String gameId = in.readUTF();
+            index(games.get(gameId), null);
+            games.restore(gameId, null);
+        }
+    }
+
+    void snapshot(Journal.Sink sink) throws IOException {
+        for (ArchivedGame game : games.values()) {
+            sink.append(Records.archivedGame(game));
+        }
+    }
+
+    private void index(ArchivedGame previous, ArchivedGame next) {
+        if (previous != null) {
+            gamesByPlayer.computeIfPresent(previous.getPlayerId(), (playerId, history) -> {
+                history.remove(previous.getId());
+                return history.isEmpty() ? null : history;
+            });
+        }
+        if (next != null) {
+            // Inside compute, so a concurrent removal of the player's last game cannot drop this one
+            gamesByPlayer.compute(next.getPlayerId(), (playerId, history) -> {
+                NavigableMap<String, ArchivedGame> games = history != null ? history : new ConcurrentSkipListMap<>();
+                games.put(next.getId(), next);
+                return games;
+            });
+        }
+    }
+}
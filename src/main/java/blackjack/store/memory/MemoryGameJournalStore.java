@@ -0,0 +1,139 @@
+package blackjack.store.memory;
+
+import blackjack.model.GameJournalEntry;
+import blackjack.store.GameJournalStore;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Journals by game id, each an immutable list in version order, replaced on every append.
+ * Only the appended entry is written to the storage journal. Journals whose last entry is
+ * past the TTL are removed by {@link #expire(Instant)}.
+ */
+final class MemoryGameJournalStore implements GameJournalStore {
+
+    private final StripedMap<String, List<GameJournalEntry>> journals;
+    private final Journal journal;
+    private volatile Duration ttl;
+
+    MemoryGameJournalStore(Journal journal, int stripes) {
+        this.journal = journal;
+        this.journals = new StripedMap<>(stripes);
+    }
+
+    @Override
+    public Mono<Set<Integer>> appendAll(List<GameJournalEntry> entries) {
+        return Mono.fromSupplier(() -> {
+            Set<Integer> rejected = new HashSet<>();
+            for (int i = 0; i < entries.size(); i++) {
+                if (!append(entries.get(i))) {
+                    rejected.add(i);
+                }
+            }
+            return rejected;
+        });
+    }
+
+    @Override
+    public Flux<GameJournalEntry> findByGameId(String gameId, long afterVersion) {
+        return Flux.defer(() -> {
+            List<GameJournalEntry> entries = journals.get(gameId);
+            return entries == null ? Flux.empty() : Flux.fromIterable(entries)
+                    .filter(entry -> entry.getVersion() > afterVersion);
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteByGameId(String gameId) {
+        return Mono.fromRunnable(() -> journals.update(gameId, current -> null,
+                (previous, next) -> journal.append(Records.deleted(Records.JOURNAL_DELETED, gameId))));
+    }
+
+    @Override
+    public Mono<Void> prepare(Duration ttl) {
+        return Mono.fromRunnable(() -> {
+            this.ttl = ttl;
+            expire(Instant.now());
+        });
+    }
+
+    /**
+     * Removes the journals last written more than the TTL before {@code now}.
+     */
+    void expire(Instant now) {
+        Duration expiry = ttl;
+        if (expiry == null) {
+            return;
+        }
+        Instant cutoff = now.minus(expiry);
+        for (List<GameJournalEntry> entries : journals.values()) {
+            String gameId = entries.get(0).getGameId();
+            if (isExpired(entries, cutoff)) {
+                journals.update(gameId, current -> current != null && isExpired(current, cutoff) ? null : current,
+                        (previous, next) -> journal.append(Records.deleted(Records.JOURNAL_DELETED, gameId)));
+            }
+        }
+    }
+
+    int size() {
+        return journals.size();
+    }
+
+    // An entry already replayed from the snapshot may come again from the journal
+    void replay(byte type, DataInput in) throws IOException {
+        if (type == Records.JOURNAL_ENTRY) {
+            GameJournalEntry entry = Records.readJournalEntry(in);
+            List<GameJournalEntry> current = journals.get(entry.getGameId());
+            if (current == null || current.stream().noneMatch(existing -> existing.getVersion() == entry.getVersion())) {
+                journals.restore(entry.getGameId(), with(current, entry));
+            }
+        } else {
+            journals.restore(in.readUTF(), null);
+        }
+    }
+
+    void snapshot(Journal.Sink sink) throws IOException {
+        for (List<GameJournalEntry> entries : journals.values()) {
+            for (GameJournalEntry entry : entries) {
+                sink.append(Records.journalEntry(entry));
+            }
+        }
+    }
+
+    private boolean append(GameJournalEntry entry) {
+        boolean[] appended = {false};
+        journals.update(entry.getGameId(), current -> {
+            if (current != null && current.stream().anyMatch(existing -> existing.getVersion() == entry.getVersion())) {
+                return current;
+            }
+            appended[0] = true;
+            return with(current, entry);
+        }, (previous, next) -> journal.append(Records.journalEntry(entry)));
+        return appended[0];
+    }
+
+    private static List<GameJournalEntry> with(List<GameJournalEntry> entries, GameJournalEntry entry) {
+        List<GameJournalEntry> next = new ArrayList<>(entries == null ? 1 : entries.size() + 1);
+        if (entries != null) {
+            next.addAll(entries);
+        }
+        next.add(entry);
+        // Moves committed concurrently from different versions may be appended out of order
+        next.sort(Comparator.comparingLong(GameJournalEntry::getVersion));
+        return List.copyOf(next);
+    }
+
+    private static boolean isExpired(List<GameJournalEntry> entries, Instant cutoff) {
+        return entries.get(entries.size() - 1).getAt().isBefore(cutoff);
+    }
+}
@@ -0,0 +1,131 @@
+package blackjack.store.memory;
+
+import blackjack.model.Game;
+import blackjack.model.Shoe;
+import blackjack.model.enums.GameStatus;
+import blackjack.store.GameStore;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+final class MemoryGameStore implements GameStore {
+
+    private final StripedMap<String, Game> games;
+    private final Journal journal;
+
+    MemoryGameStore(Journal journal, int stripes) {
+        this.journal = journal;
+        this.games = new StripedMap<>(stripes);
+    }
+
+    @Override
+    public Mono<Game> findById(String gameId) {
+        return Mono.fromSupplier(() -> games.get(gameId));
+    }
+
+    @Override
+    public Mono<Game> insert(Game game) {
+        return Mono.fromSupplier(() -> games.update(game.getId(), current -> {
+            if (current != null) {
+                throw new DuplicateKeyException("Game " + game.getId() + " already exists");
+            }
+            return game;
+        }, this::journal));
+    }
+
+    @Override
+    public Mono<Game> updateIfVersion(Game game, long expectedVersion) {
+        return Mono.fromSupplier(() -> {
+            Game stored = games.update(game.getId(), current ->
+                    current != null && current.getVersion() == expectedVersion && current.getGameStatus() == GameStatus.ACTIVE
+                            ? game
+                            : current, this::journal);
+            return stored == game ? game : null;
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteById(String gameId) {
+        return Mono.fromRunnable(() -> games.update(gameId, current -> null, this::journal));
+    }
+
+    @Override
+    public Flux<Game> findByGameStatusAndSettledFalse(GameStatus gameStatus) {
+        return Flux.defer(() -> Flux.fromStream(games.values().stream()
+                .filter(game -> game.getGameStatus() == gameStatus && !game.isSettled())));
+    }
+
+    @Override
+    public Mono<Void> markSettled(Collection<String> gameIds) {
+        return Mono.fromRunnable(() -> gameIds.forEach(gameId -> games.update(gameId, current ->
+                current == null || current.isSettled() ? current : current.toBuilder().settled(true).build(), this::journal)));
+    }
+
+    @Override
+    public Flux<Game> findSettled(int limit) {
+        return Flux.defer(() -> Flux.fromStream(games.values().stream()
+                .filter(MemoryGameStore::isSettled)
+                .limit(limit)));
+    }
+
+    @Override
+    public Mono<Long> deleteSettled(Collection<String> gameIds) {
+        return Mono.fromSupplier(() -> gameIds.stream()
+                .filter(gameId -> {
+                    Game current = games.get(gameId);
+                    return current != null && isSettled(current)
+                            && games.update(gameId, game -> game != null && isSettled(game) ? null : game, this::journal) == null;
+                })
+                .count());
+    }
+
+    // Games have always been written with player ids here
+    @Override
+    public Mono<Long> migratePlayerReferences() {
+        return Mono.just(0L);
+    }
+
+    // Cards have always been written as byte codes here
+    @Override
+    public Mono<Long> migrateCardEncoding(Supplier<Shoe> shoes) {
+        return Mono.just(0L);
+    }
+
+    // Games are only looked up by id here, or scanned in memory
+    @Override
+    public Mono<Void> prepare() {
+        return Mono.empty();
+    }
+
+    int size() {
+        return games.size();
+    }
+
+    void replay(byte type, DataInput in) throws IOException {
+        if (type == Records.GAME) {
+            Game game = Records.readGame(in);
+            games.restore(game.getId(), game);
+        } else {
+            games.restore(in.readUTF(), null);
+        }
+    }
+
+    void snapshot(Journal.Sink sink) throws IOException {
+        for (Game game : games.values()) {
+            sink.append(Records.game(game));
+        }
+    }
+
+    private void journal(Game previous, Game next) {
+        journal.append(next != null ? Records.game(next) : Records.deleted(Records.GAME_DELETED, previous.getId()));
+    }
+
+    private static boolean isSettled(Game game) {
+        return game.getGameStatus() == GameStatus.FINISHED && game.isSettled();
+    }
+}
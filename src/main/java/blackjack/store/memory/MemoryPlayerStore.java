@@ -0,0 +1,201 @@
+package blackjack.store.memory;
+
+import blackjack.model.Player;
+import blackjack.store.PlayerStore;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * Players in pages of arrays indexed by id, so a lookup by id needs no boxing or hashing:
+ * ids are assigned here, so they are dense from 1. Writes are serialized by lock stripes over
+ * the id, reads take no lock. Stored players are private copies.
+ */
+final class MemoryPlayerStore implements PlayerStore {
+
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    private final Journal journal;
+    private final ReentrantLock[] stripes;
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final AtomicInteger lastId = new AtomicInteger();
+    private volatile AtomicReferenceArray<Player>[] pages = newPages(0);
+
+    MemoryPlayerStore(Journal journal, int stripes) {
+        this.journal = journal;
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Mono<Player> findById(int playerId) {
+        return Mono.fromSupplier(() -> copy(get(playerId)));
+    }
+
+    @Override
+    public Mono<Player> findByName(String name) {
+        return Mono.fromSupplier(() -> {
+            Integer playerId = idsByName.get(name);
+            return playerId == null ? null : copy(get(playerId));
+        });
+    }
+
+    @Override
+    public Flux<Player> findAll() {
+        return Flux.defer(() -> Flux.fromStream(IntStream.rangeClosed(1, lastId.get())
+                .mapToObj(this::get)
+                .filter(player -> player != null)
+                .map(MemoryPlayerStore::copy)));
+    }
+
+    @Override
+    public Mono<Player> save(Player player) {
+        return Mono.fromSupplier(() -> {
+            if (player.getId() == null) {
+                int playerId = lastId.incrementAndGet();
+                claimName(player.getName(), playerId);
+                store(playerId, current -> new Player(playerId, player.getName(), player.getTotalPoints(), null));
+                player.setId(playerId);
+                return player;
+            }
+            store(player.getId(), current -> {
+                if (current == null || !current.getName().equals(player.getName())) {
+                    claimName(player.getName(), player.getId());
+                    if (current != null) {
+                        idsByName.remove(current.getName(), player.getId());
+                    }
+                }
+                return copy(player);
+            });
+            return player;
+        });
+    }
+
+    @Override
+    public Mono<Player> rename(int playerId, String name) {
+        return Mono.fromSupplier(() -> copy(store(playerId, current -> {
+            if (current == null) {
+                return null;
+            }
+            if (!current.getName().equals(name)) {
+                claimName(name, playerId);
+                idsByName.remove(current.getName(), playerId);
+            }
+            return new Player(playerId, name, current.getTotalPoints(), null);
+        })));
+    }
+
+    @Override
+    public Mono<Void> addPointsBatch(Map<Integer, Integer> deltas) {
+        return Mono.fromRunnable(() -> deltas.forEach(this::addPointsNow));
+    }
+
+    // Ids are the array index and idsByName is the unique name index
+    @Override
+    public Mono<Void> prepare() {
+        return Mono.empty();
+    }
+
+    int size() {
+        return idsByName.size();
+    }
+
+    void replay(DataInput in) throws IOException {
+        Player player = Records.readPlayer(in);
+        Player previous = get(player.getId());
+        if (previous != null && !previous.getName().equals(player.getName())) {
+            idsByName.remove(previous.getName(), player.getId());
+        }
+        idsByName.put(player.getName(), player.getId());
+        set(player.getId(), player);
+        lastId.accumulateAndGet(player.getId(), Math::max);
+    }
+
+    void snapshot(Journal.Sink sink) throws IOException {
+        for (int playerId = 1; playerId <= lastId.get(); playerId++) {
+            Player player = get(playerId);
+            if (player != null) {
+                sink.append(Records.player(player));
+            }
+        }
+    }
+
+    private boolean addPointsNow(int playerId, int points) {
+        return store(playerId, current -> current == null ? null
+                : new Player(playerId, current.getName(), current.getTotalPoints() + points, null)) != null;
+    }
+
+    private void claimName(String name, int playerId) {
+        Integer owner = idsByName.putIfAbsent(name, playerId);
+        if (owner != null && owner != playerId) {
+            throw new DuplicateKeyException("Player with name '" + name + "' already exists");
+        }
+    }
+
+    private interface Change {
+        Player apply(Player current);
+    }
+
+    // Applies a change and journals the new player under the stripe lock of the id
+    private Player store(int playerId, Change change) {
+        ReentrantLock lock = stripes[playerId % stripes.length];
+        lock.lock();
+        try {
+            Player next = change.apply(get(playerId));
+            if (next != null) {
+                set(playerId, next);
+                journal.append(Records.player(next));
+            }
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Player get(int playerId) {
+        AtomicReferenceArray<Player>[] current = pages;
+        int page = playerId >>> PAGE_BITS;
+        return page < current.length ? current[page].get(playerId & (PAGE_SIZE - 1)) : null;
+    }
+
+    private void set(int playerId, Player player) {
+        int page = playerId >>> PAGE_BITS;
+        if (page >= pages.length) {
+            grow(page);
+        }
+        pages[page].set(playerId & (PAGE_SIZE - 1), player);
+    }
+
+    private synchronized void grow(int page) {
+        if (page < pages.length) {
+            return;
+        }
+        AtomicReferenceArray<Player>[] grown = Arrays.copyOf(pages, Math.max(page + 1, pages.length * 2));
+        for (int i = pages.length; i < grown.length; i++) {
+            grown[i] = new AtomicReferenceArray<>(PAGE_SIZE);
+        }
+        pages = grown;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AtomicReferenceArray<Player>[] newPages(int length) {
+        return new AtomicReferenceArray[length];
+    }
+
+    private static Player copy(Player player) {
+        return player == null ? null : new Player(player.getId(), player.getName(), player.getTotalPoints(), null);
+    }
+}
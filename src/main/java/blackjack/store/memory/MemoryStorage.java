@@ -0,0 +1,120 @@
+package blackjack.store.memory;
+
+import blackjack.config.StorageProperties;
+import blackjack.store.GameHistoryStore;
+import blackjack.store.GameJournalStore;
+import blackjack.store.GameStore;
+import blackjack.store.PlayerStore;
+import blackjack.store.TableStore;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-process storage engine: games, game journals, tables, players and archived games
+ * in memory, recovered at startup from the latest snapshot and the journal written after it,
+ * then snapshotted on an interval and on shutdown.
+ */
+@Slf4j
+public final class MemoryStorage implements Closeable {
+
+    private final Journal journal;
+    private final MemoryGameStore games;
+    private final MemoryPlayerStore players;
+    private final MemoryGameHistoryStore history;
+    private final MemoryGameJournalStore gameJournals;
+    private final MemoryTableStore tables;
+    private final Scheduler snapshots = Schedulers.newSingle("storage-snapshot", true);
+    private final Disposable snapshotTask;
+
+    public MemoryStorage(StorageProperties.Memory properties) throws IOException {
+        this.journal = new Journal(properties.getDirectory(), properties.getMappedRegionSize().toBytes());
+        this.games = new MemoryGameStore(journal, properties.getStripes());
+        this.players = new MemoryPlayerStore(journal, properties.getStripes());
+        this.history = new MemoryGameHistoryStore(journal, properties.getStripes());
+        this.gameJournals = new MemoryGameJournalStore(journal, properties.getStripes());
+        this.tables = new MemoryTableStore(journal, properties.getStripes());
+
+        long started = System.nanoTime();
+        long records = journal.recover(this::replay);
+        log.info("Recovered {} games, {} tables, {} players, {} archived games and {} game journals from {} records in {} ms",
+                games.size(), tables.size(), players.size(), history.size(), gameJournals.size(), records,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        checkpoint();
+
+        long interval = properties.getSnapshotInterval().toMillis();
+        this.snapshotTask = snapshots.schedulePeriodically(() -> {
+            try {
+                checkpoint();
+            } catch (IOException | RuntimeException e) {
+                log.error("Storage snapshot failed, the journal keeps growing until the next one", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public GameStore games() {
+        return games;
+    }
+
+    public PlayerStore players() {
+        return players;
+    }
+
+    public GameHistoryStore history() {
+        return history;
+    }
+
+    public GameJournalStore gameJournals() {
+        return gameJournals;
+    }
+
+    public TableStore tables() {
+        return tables;
+    }
+
+    /**
+     * Writes a final snapshot, so the next startup has no journal to replay.
+     */
+    @Override
+    public void close() throws IOException {
+        snapshotTask.dispose();
+        snapshots.dispose();
+        try {
+            checkpoint();
+        } finally {
+            journal.close();
+        }
+    }
+
+    private void checkpoint() throws IOException {
+        Instant now = Instant.now();
+        history.expire(now);
+        gameJournals.expire(now);
+        journal.checkpoint(sink -> {
+            players.snapshot(sink);
+            games.snapshot(sink);
+            history.snapshot(sink);
+            gameJournals.snapshot(sink);
+            tables.snapshot(sink);
+        });
+    }
+
+    private void replay(DataInputStream record) throws IOException {
+        byte type = record.readByte();
+        switch (type) {
+            case Records.GAME, Records.GAME_DELETED -> games.replay(type, record);
+            case Records.PLAYER -> players.replay(record);
+            case Records.ARCHIVED_GAME, Records.ARCHIVED_GAME_DELETED -> history.replay(type, record);
+            case Records.JOURNAL_ENTRY, Records.JOURNAL_DELETED -> gameJournals.replay(type, record);
+            case Records.TABLE -> tables.replay(record);
+            default -> throw new IOException("Unknown storage record type " + type);
+        }
+    }
+}
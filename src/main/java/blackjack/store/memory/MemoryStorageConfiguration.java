@@ -0,0 +1,48 @@
+package blackjack.store.memory;
+
+import blackjack.config.StorageProperties;
+import blackjack.store.GameHistoryStore;
+import blackjack.store.GameJournalStore;
+import blackjack.store.GameStore;
+import blackjack.store.PlayerStore;
+import blackjack.store.TableStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "blackjack.storage", name = "engine", havingValue = "memory")
+public class MemoryStorageConfiguration {
+
+    @Bean(destroyMethod = "close")
+    MemoryStorage memoryStorage(StorageProperties properties) throws IOException {
+        return new MemoryStorage(properties.getMemory());
+    }
+
+    @Bean
+    GameStore gameStore(MemoryStorage storage) {
+        return storage.games();
+    }
+
+    @Bean
+    PlayerStore playerStore(MemoryStorage storage) {
+        return storage.players();
+    }
+
+    @Bean
+    GameHistoryStore gameHistoryStore(MemoryStorage storage) {
+        return storage.history();
+    }
+
+    @Bean
+    GameJournalStore gameJournalStore(MemoryStorage storage) {
+        return storage.gameJournals();
+    }
+
+    @Bean
+    TableStore tableStore(MemoryStorage storage) {
+        return storage.tables();
+    }
+}
@@ -0,0 +1,71 @@
+package blackjack.store.memory;
+
+import blackjack.model.Table;
+import blackjack.model.enums.GameStatus;
+import blackjack.store.TableStore;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+final class MemoryTableStore implements TableStore {
+
+    private final StripedMap<String, Table> tables;
+    private final Journal journal;
+
+    MemoryTableStore(Journal journal, int stripes) {
+        this.journal = journal;
+        this.tables = new StripedMap<>(stripes);
+    }
+
+    @Override
+    public Mono<Table> findById(String tableId) {
+        return Mono.fromSupplier(() -> tables.get(tableId));
+    }
+
+    @Override
+    public Mono<Table> insert(Table table) {
+        return Mono.fromSupplier(() -> tables.update(table.getId(), current -> {
+            if (current != null) {
+                throw new DuplicateKeyException("Table " + table.getId() + " already exists");
+            }
+            return table;
+        }, this::journal));
+    }
+
+    @Override
+    public Mono<Table> updateIfVersion(Table table, long expectedVersion) {
+        return Mono.fromSupplier(() -> {
+            Table stored = tables.update(table.getId(), current ->
+                    current != null && current.getVersion() == expectedVersion ? table : current, this::journal);
+            return stored == table ? table : null;
+        });
+    }
+
+    @Override
+    public Flux<Table> findByTableStatusAndSettledFalse(GameStatus tableStatus) {
+        return Flux.defer(() -> Flux.fromStream(tables.values().stream()
+                .filter(table -> table.getTableStatus() == tableStatus && !table.isSettled())));
+    }
+
+    int size() {
+        return tables.size();
+    }
+
+    void replay(DataInput in) throws IOException {
+        Table table = Records.readTable(in);
+        tables.restore(table.getId(), table);
+    }
+
+    void snapshot(Journal.Sink sink) throws IOException {
+        for (Table table : tables.values()) {
+            sink.append(Records.table(table));
+        }
+    }
+
+    private void journal(Table previous, Table next) {
+        journal.append(Records.table(next));
+    }
+}
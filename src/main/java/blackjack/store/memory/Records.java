@@ -0,0 +1,337 @@
+package blackjack.store.memory;
+
+import blackjack.model.ArchivedGame;
+import blackjack.model.Card;
+import blackjack.model.CardPile;
+import blackjack.model.Game;
+import blackjack.model.GameEvent;
+import blackjack.model.GameJournalEntry;
+import blackjack.model.Player;
+import blackjack.model.Seat;
+import blackjack.model.Shoe;
+import blackjack.model.Table;
+import blackjack.model.enums.GameEventType;
+import blackjack.model.enums.GameStatus;
+import blackjack.model.enums.Participant;
+import blackjack.model.enums.SeatStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary encoding of journal and snapshot records. Every record starts with its type and
+ * holds the whole new state of one entity, so replaying a record twice is harmless.
+ */
+final class Records {
+
+    static final byte GAME = 1;
+    static final byte GAME_DELETED = 2;
+    static final byte PLAYER = 3;
+    static final byte ARCHIVED_GAME = 4;
+    static final byte ARCHIVED_GAME_DELETED = 5;
+    static final byte JOURNAL_ENTRY = 6;
+    static final byte JOURNAL_DELETED = 7;
+    static final byte TABLE = 8;
+
+    private static final GameStatus[] GAME_STATUSES = GameStatus.values();
+    private static final Participant[] PARTICIPANTS = Participant.values();
+    private static final GameEventType[] EVENT_TYPES = GameEventType.values();
+    private static final SeatStatus[] SEAT_STATUSES = SeatStatus.values();
+
+    private Records() {
+    }
+
+    interface Body {
+        void write(DataOutput out) throws IOException;
+    }
+
+    static byte[] encode(byte type, Body body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type);
+            body.write(out);
+        } catch (IOException e) {
+            // Writing to memory cannot fail
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] game(Game game) {
+        return encode(GAME, out -> {
+            out.writeUTF(game.getId());
+            out.writeInt(game.getPlayerId());
+            writePile(out, game.getPlayerCards());
+            writePile(out, game.getDealerCards());
+            writeOrdinal(out, game.getGameStatus());
+            writeOrdinal(out, game.getWinner());
+            writeCard(out, game.getHiddenCard());
+            writeShoe(out, game.getDeck());
+            out.writeInt(game.getPoints());
+            out.writeBoolean(game.isSettled());
+            out.writeLong(game.getVersion());
+            writeInstant(out, game.getCreatedAt());
+            writeInstant(out, game.getFinishedAt());
+        });
+    }
+
+    static Game readGame(DataInput in) throws IOException {
+        return Game.builder()
+                .id(in.readUTF())
+                .playerId(in.readInt())
+                .playerCards(readPile(in))
+                .dealerCards(readPile(in))
+                .gameStatus(readOrdinal(in, GAME_STATUSES))
+                .winner(readOrdinal(in, PARTICIPANTS))
+                .hiddenCard(readCard(in))
+                .deck(readShoe(in))
+                .points(in.readInt())
+                .settled(in.readBoolean())
+                .version(in.readLong())
+                .createdAt(readInstant(in))
+                .finishedAt(readInstant(in))
+                .build();
+    }
+
+    static byte[] player(Player player) {
+        return encode(PLAYER, out -> {
+            out.writeInt(player.getId());
+            out.writeUTF(player.getName());
+            out.writeInt(player.getTotalPoints());
+        });
+    }
+
+    static Player readPlayer(DataInput in) throws IOException {
+        return Player.builder()
+                .id(in.readInt())
+                .name(in.readUTF())
+                .totalPoints(in.readInt())
+                .build();
+    }
+
+    static byte[] archivedGame(ArchivedGame game) {
+        return encode(ARCHIVED_GAME, out -> {
+            out.writeUTF(game.getId());
+            out.writeInt(game.getPlayerId());
+            writePile(out, game.getPlayerCards());
+            writePile(out, game.getDealerCards());
+            out.writeInt(game.getPlayerScore());
+            out.writeInt(game.getDealerScore());
+            writeOrdinal(out, game.getWinner());
+            out.writeInt(game.getPoints());
+            writeInstant(out, game.getCreatedAt());
+            writeInstant(out, game.getFinishedAt());
+        });
+    }
+
+    static ArchivedGame readArchivedGame(DataInput in) throws IOException {
+        return ArchivedGame.builder()
+                .id(in.readUTF())
+                .playerId(in.readInt())
+                .playerCards(readPile(in))
+                .dealerCards(readPile(in))
+                .playerScore(in.readInt())
+                .dealerScore(in.readInt())
+                .winner(readOrdinal(in, PARTICIPANTS))
+                .points(in.readInt())
+                .createdAt(readInstant(in))
+                .finishedAt(readInstant(in))
+                .build();
+    }
+
+    // Only the fields of each event type are written, a HIT is its type and a card code
+    static byte[] journalEntry(GameJournalEntry entry) {
+        return encode(JOURNAL_ENTRY, out -> {
+            out.writeUTF(entry.getGameId());
+            out.writeLong(entry.getVersion());
+            writeInstant(out, entry.getAt());
+            out.writeByte(entry.getEvents().size());
+            for (GameEvent event : entry.getEvents()) {
+                writeOrdinal(out, event.getType());
+                switch (event.getType()) {
+                    case DEALT -> {
+                        out.writeInt(event.getPlayerId());
+                        writePile(out, event.getPlayerCards());
+                        writePile(out, event.getDealerCards());
+                        writeCard(out, event.getHiddenCard());
+                        writeShoe(out, event.getDeck());
+                    }
+                    case HIT, DEALER_DRAW -> writeCard(out, event.getCard());
+                    case SHUFFLED -> writeShoe(out, event.getDeck());
+                    case SETTLED -> {
+                        writeOrdinal(out, event.getWinner());
+                        out.writeInt(event.getPoints());
+                    }
+                    case STAND -> {
+                    }
+                }
+            }
+        });
+    }
+
+    static GameJournalEntry readJournalEntry(DataInput in) throws IOException {
+        GameJournalEntry entry = GameJournalEntry.builder()
+                .gameId(in.readUTF())
+                .version(in.readLong())
+                .at(readInstant(in))
+                .build();
+        int count = in.readUnsignedByte();
+        List<GameEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            GameEventType type = readOrdinal(in, EVENT_TYPES);
+            GameEvent.GameEventBuilder event = GameEvent.builder().type(type);
+            switch (type) {
+                case DEALT -> event.playerId(in.readInt())
+                        .playerCards(readPile(in))
+                        .dealerCards(readPile(in))
+                        .hiddenCard(readCard(in))
+                        .deck(readShoe(in));
+                case HIT, DEALER_DRAW -> event.card(readCard(in));
+                case SHUFFLED -> event.deck(readShoe(in));
+                case SETTLED -> event.winner(readOrdinal(in, PARTICIPANTS)).points(in.readInt());
+                case STAND -> {
+                }
+            }
+            events.add(event.build());
+        }
+        entry.setEvents(events);
+        return entry;
+    }
+
+    static byte[] table(Table table) {
+        return encode(TABLE, out -> {
+            out.writeUTF(table.getId());
+            out.writeByte(table.getSeats().size());
+            for (Seat seat : table.getSeats()) {
+                out.writeInt(seat.getPlayerId());
+                writePile(out, seat.getCards());
+                writeOrdinal(out, seat.getStatus());
+                writeOrdinal(out, seat.getWinner());
+                out.writeInt(seat.getPoints());
+            }
+            writePile(out, table.getDealerCards());
+            writeCard(out, table.getHiddenCard());
+            writeShoe(out, table.getDeck());
+            writeOrdinal(out, table.getTableStatus());
+            out.writeInt(table.getRound());
+            out.writeBoolean(table.isSettled());
+            out.writeLong(table.getVersion());
+            writeInstant(out, table.getCreatedAt());
+            writeInstant(out, table.getFinishedAt());
+        });
+    }
+
+    static Table readTable(DataInput in) throws IOException {
+        String id = in.readUTF();
+        int count = in.readUnsignedByte();
+        List<Seat> seats = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            seats.add(Seat.builder()
+                    .playerId(in.readInt())
+                    .cards(readPile(in))
+                    .status(readOrdinal(in, SEAT_STATUSES))
+                    .winner(readOrdinal(in, PARTICIPANTS))
+                    .points(in.readInt())
+                    .build());
+        }
+        return Table.builder()
+                .id(id)
+                .seats(seats)
+                .dealerCards(readPile(in))
+                .hiddenCard(readCard(in))
+                .deck(readShoe(in))
+                .tableStatus(readOrdinal(in, GAME_STATUSES))
+                .round(in.readInt())
+                .settled(in.readBoolean())
+                .version(in.readLong())
+                .createdAt(readInstant(in))
+                .finishedAt(readInstant(in))
+                .build();
+    }
+
+    static byte[] deleted(byte type, String id) {
+        return encode(type, out -> out.writeUTF(id));
+    }
+
+    // A pile is its size, its cursor and the card codes, a size of -1 stands for null
+    private static void writePile(DataOutput out, CardPile pile) throws IOException {
+        if (pile == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] codes = pile.toByteArray();
+        out.writeShort(codes.length);
+        out.writeShort(pile.getCursor());
+        out.write(codes);
+    }
+
+    private static CardPile readPile(DataInput in) throws IOException {
+        int size = in.readShort();
+        if (size < 0) {
+            return null;
+        }
+        int cursor = in.readShort();
+        byte[] codes = new byte[size];
+        in.readFully(codes);
+        return new CardPile(codes, cursor, size);
+    }
+
+    // A shoe is its decks, seed, cut card and cards dealt, no decks stand for null
+    private static void writeShoe(DataOutput out, Shoe shoe) throws IOException {
+        if (shoe == null) {
+            out.writeByte(0);
+            return;
+        }
+        out.writeByte(shoe.getDecks());
+        out.writeLong(shoe.getSeed());
+        out.writeShort(shoe.getCutCard());
+        out.writeShort(shoe.getDealt());
+    }
+
+    private static Shoe readShoe(DataInput in) throws IOException {
+        int decks = in.readByte();
+        if (decks == 0) {
+            return null;
+        }
+        long seed = in.readLong();
+        int cutCard = in.readShort();
+        return new Shoe(seed, decks, cutCard, in.readShort());
+    }
+
+    private static void writeCard(DataOutput out, Card card) throws IOException {
+        out.writeByte(card == null ? -1 : card.code());
+    }
+
+    private static Card readCard(DataInput in) throws IOException {
+        int code = in.readByte();
+        return code < 0 ? null : Card.of(code);
+    }
+
+    private static void writeOrdinal(DataOutput out, Enum<?> value) throws IOException {
+        out.writeByte(value == null ? -1 : value.ordinal());
+    }
+
+    private static <E extends Enum<E>> E readOrdinal(DataInput in, E[] values) throws IOException {
+        int ordinal = in.readByte();
+        return ordinal < 0 ? null : values[ordinal];
+    }
+
+    private static void writeInstant(DataOutput out, Instant instant) throws IOException {
+        out.writeBoolean(instant != null);
+        if (instant != null) {
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+        }
+    }
+
+    private static Instant readInstant(DataInput in) throws IOException {
+        return in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+    }
+}
@@ -0,0 +1,79 @@
+package blackjack.store.memory;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * A concurrent map whose writes are serialized per key by a fixed set of lock stripes,
+ * so a change and its journal record are made atomically and in the same order for the
+ * same key. Reads take no lock.
+ */
+final class StripedMap<K, V> {
+
+    private final Map<K, V> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes;
+
+    StripedMap(int stripes) {
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(stripes, 1) * 2 - 1)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    V get(K key) {
+        return entries.get(key);
+    }
+
+    Collection<V> values() {
+        return entries.values();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Replaces the value of {@code key} by {@code change} applied to it, null meaning
+     * absent, and calls {@code onChange} with the old and new values under the same lock
+     * if the change returned another value. Returns the new value.
+     */
+    V update(K key, UnaryOperator<V> change, BiConsumer<V, V> onChange) {
+        ReentrantLock lock = stripe(key);
+        lock.lock();
+        try {
+            V current = entries.get(key);
+            V next = change.apply(current);
+            if (next != current) {
+                if (next == null) {
+                    entries.remove(key);
+                } else {
+                    entries.put(key, next);
+                }
+                onChange.accept(current, next);
+            }
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets, or for null removes, a value without locking, while recovering.
+     */
+    void restore(K key, V value) {
+        if (value == null) {
+            entries.remove(key);
+        } else {
+            entries.put(key, value);
+        }
+    }
+
+    private ReentrantLock stripe(K key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,37 @@
+package blackjack.store.repository;
+
+import blackjack.model.ArchivedGame;
+import blackjack.repository.ArchivedGameRepository;
+import blackjack.store.GameHistoryStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "blackjack.storage", name = "engine", havingValue = "repository", matchIfMissing = true)
+public class MongoGameHistoryStore implements GameHistoryStore {
+
+    private final ArchivedGameRepository archivedGameRepository;
+
+    @Override
+    public Mono<Void> upsertAll(Collection<ArchivedGame> games) {
+        return archivedGameRepository.upsertAll(games);
+    }
+
+    @Override
+    public Flux<ArchivedGame> findHistory(int playerId, String before, int limit) {
+        return archivedGameRepository.findHistory(playerId, before, limit);
+    }
+
+    // Expiry is left to a TTL index
+    @Override
+    public Mono<Void> prepare(Duration ttl) {
+        return archivedGameRepository.ensureIndexes(ttl);
+    }
+}
@@ -0,0 +1,43 @@
+package blackjack.store.repository;
+
+import blackjack.model.GameJournalEntry;
+import blackjack.repository.GameJournalRepository;
+import blackjack.store.GameJournalStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "blackjack.storage", name = "engine", havingValue = "repository", matchIfMissing = true)
+public class MongoGameJournalStore implements GameJournalStore {
+
+    private final GameJournalRepository gameJournalRepository;
+
+    // A duplicate game and version is rejected by the unique index
+    @Override
+    public Mono<Set<Integer>> appendAll(List<GameJournalEntry> entries) {
+        return gameJournalRepository.insertAll(entries);
+    }
+
+    @Override
+    public Flux<GameJournalEntry> findByGameId(String gameId, long afterVersion) {
+        return gameJournalRepository.findByGameIdAndVersionGreaterThanOrderByVersionAsc(gameId, afterVersion);
+    }
+
+    @Override
+    public Mono<Void> deleteByGameId(String gameId) {
+        return gameJournalRepository.deleteByGameId(gameId);
+    }
+
+    @Override
+    public Mono<Void> prepare(Duration ttl) {
+        return gameJournalRepository.ensureIndexes(ttl);
+    }
+}
@@ -0,0 +1,78 @@
+package blackjack.store.repository;
+
+import blackjack.model.Game;
+import blackjack.model.Shoe;
+import blackjack.model.enums.GameStatus;
+import blackjack.repository.GameRepository;
+import blackjack.store.GameStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "blackjack.storage", name = "engine", havingValue = "repository", matchIfMissing = true)
+public class MongoGameStore implements GameStore {
+
+    private final GameRepository gameRepository;
+
+    @Override
+    public Mono<Game> findById(String gameId) {
+        return gameRepository.findById(gameId);
+    }
+
+    @Override
+    public Mono<Game> insert(Game game) {
+        return gameRepository.insert(game);
+    }
+
+    @Override
+    public Mono<Game> updateIfVersion(Game game, long expectedVersion) {
+        return gameRepository.updateIfVersion(game, expectedVersion);
+    }
+
+    @Override
+    public Mono<Void> deleteById(String gameId) {
+        return gameRepository.deleteById(gameId);
+    }
+
+    @Override
+    public Flux<Game> findByGameStatusAndSettledFalse(GameStatus gameStatus) {
+        return gameRepository.findByGameStatusAndSettledFalse(gameStatus);
+    }
+
+    @Override
+    public Mono<Void> markSettled(Collection<String> gameIds) {
+        return gameRepository.markSettled(gameIds);
+    }
+
+    @Override
+    public Flux<Game> findSettled(int limit) {
+        return gameRepository.findSettled(limit);
+    }
+
+    @Override
+    public Mono<Long> deleteSettled(Collection<String> gameIds) {
+        return gameRepository.deleteSettled(gameIds);
+    }
+
+    @Override
+    public Mono<Long> migratePlayerReferences() {
+        return gameRepository.migratePlayerReferences();
+    }
+
+    @Override
+    public Mono<Long> migrateCardEncoding(Supplier<Shoe> shoes) {
+        return gameRepository.migrateCardEncoding(shoes);
+    }
+
+    @Override
+    public Mono<Void> prepare() {
+        return gameRepository.ensureIndexes();
+    }
+}
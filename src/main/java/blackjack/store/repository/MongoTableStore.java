@@ -0,0 +1,39 @@
+package blackjack.store.repository;
+
+import blackjack.model.Table;
+import blackjack.model.enums.GameStatus;
+import blackjack.repository.TableRepository;
+import blackjack.store.TableStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "blackjack.storage", name = "engine", havingValue = "repository", matchIfMissing = true)
+public class MongoTableStore implements TableStore {
+
+    private final TableRepository tableRepository;
+
+    @Override
+    public Mono<Table> findById(String tableId) {
+        return tableRepository.findById(tableId);
+    }
+
+    @Override
+    public Mono<Table> insert(Table table) {
+        return tableRepository.insert(table);
+    }
+
+    @Override
+    public Mono<Table> updateIfVersion(Table table, long expectedVersion) {
+        return tableRepository.updateIfVersion(table, expectedVersion);
+    }
+
+    @Override
+    public Flux<Table> findByTableStatusAndSettledFalse(GameStatus tableStatus) {
+        return tableRepository.findByTableStatusAndSettledFalse(tableStatus);
+    }
+}
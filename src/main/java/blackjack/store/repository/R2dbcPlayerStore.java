@@ -0,0 +1,57 @@
+package blackjack.store.repository;
+
+import blackjack.model.Player;
+import blackjack.repository.PlayerRepository;
+import blackjack.store.PlayerStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "blackjack.storage", name = "engine", havingValue = "repository", matchIfMissing = true)
+public class R2dbcPlayerStore implements PlayerStore {
+
+    private final PlayerRepository playerRepository;
+
+    @Override
+    public Mono<Player> findById(int playerId) {
+        return playerRepository.findById(playerId);
+    }
+
+    @Override
+    public Mono<Player> findByName(String name) {
+        return playerRepository.findByName(name);
+    }
+
+    @Override
+    public Flux<Player> findAll() {
+        return playerRepository.findAll();
+    }
+
+    @Override
+    public Mono<Player> save(Player player) {
+        return playerRepository.save(player);
+    }
+
+    @Override
+    public Mono<Player> rename(int playerId, String name) {
+        return playerRepository.rename(playerId, name)
+                .then(playerRepository.findById(playerId));
+    }
+
+    @Override
+    public Mono<Void> addPointsBatch(Map<Integer, Integer> deltas) {
+        return playerRepository.addPointsBatch(deltas);
+    }
+
+    // The schema is created and migrated by Flyway before the application starts
+    @Override
+    public Mono<Void> prepare() {
+        return playerRepository.verifyIndexes();
+    }
+}
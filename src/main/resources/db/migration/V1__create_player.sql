@@ -0,0 +1,8 @@
+-- Databases created before migrations were managed already have this table, they are
+-- baselined at version 0 and this script leaves their table as it is
+CREATE TABLE IF NOT EXISTS player (
+    id           INT          NOT NULL AUTO_INCREMENT,
+    player_name  VARCHAR(255) NOT NULL,
+    total_points INT          NOT NULL DEFAULT 0,
+    PRIMARY KEY (id)
+);
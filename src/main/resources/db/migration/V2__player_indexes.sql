@@ -0,0 +1,6 @@
+-- The name index decides races between concurrent creates and renames of a player,
+-- see PlayerNames. Fails on a table that already holds a name twice.
+CREATE UNIQUE INDEX uk_player_name ON player (player_name);
+
+-- Players by points, highest first, for the ranking
+CREATE INDEX ix_player_total_points ON player (total_points DESC, id);
@@ -0,0 +1,118 @@
+package blackjack.controller.codec;
+
+import blackjack.model.Card;
+import blackjack.model.dto.GameDTO;
+import blackjack.model.dto.PlayerDTO;
+import blackjack.model.enums.GameStatus;
+import blackjack.model.enums.Participant;
+import blackjack.model.enums.PlayerStatus;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.DecoderHttpMessageReader;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Games written by the compact JSON and CBOR codecs, as registered with WebFlux, read back
+ * equal to what was written.
+ */
+class GameCodecsTest {
+
+    private static final ResolvableType GAME = ResolvableType.forClass(GameDTO.class);
+
+    private static final Card TEN_OF_HEARTS = Card.of(Card.Suit.HEART, Card.Value.TEN);
+    private static final Card ACE_OF_SPADES = Card.of(Card.Suit.SPADE, Card.Value.ACE);
+    private static final Card ONE_OF_SPADES = Card.of(Card.Suit.SPADE, Card.Value.ONE);
+
+    @ParameterizedTest
+    @ValueSource(strings = {GameCodecs.COMPACT_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    void gameWithAPlayerIsReadBackEqual(String mediaType) {
+        GameDTO game = GameDTO.builder()
+                .id("65f1c0ffee0000000000abcd")
+                .playerDTO(PlayerDTO.builder().id(7).name("Ana").totalPoints(12).status(PlayerStatus.WON).build())
+                .playerCards(List.of(TEN_OF_HEARTS, ACE_OF_SPADES))
+                .dealerCards(List.of(ONE_OF_SPADES))
+                .gameStatus(GameStatus.FINISHED)
+                .winner(Participant.PLAYER)
+                .version(5)
+                .build();
+
+        assertThat(roundTrip(game, MediaType.parseMediaType(mediaType))).isEqualTo(game);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {GameCodecs.COMPACT_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    void gameWithoutAPlayerAndWithEmptyHandsIsReadBackEqual(String mediaType) {
+        GameDTO game = GameDTO.builder()
+                .id("65f1c0ffee0000000000abce")
+                .playerCards(List.of())
+                .dealerCards(List.of())
+                .gameStatus(GameStatus.ACTIVE)
+                .winner(Participant.NONE)
+                .build();
+
+        assertThat(roundTrip(game, MediaType.parseMediaType(mediaType))).isEqualTo(game);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"10H", "AS", "1S"})
+    void compactJsonWritesCardsAsTheirCodes(String code) {
+        Card card = CardCodes.parse(code);
+        GameDTO game = GameDTO.builder().playerCards(List.of(card)).build();
+
+        DataBuffer buffer = encoder(GameCodecs.COMPACT_JSON).encodeValue(game, DefaultDataBufferFactory.sharedInstance,
+                GAME, GameCodecs.COMPACT_JSON, null);
+        String json = buffer.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(buffer);
+
+        assertThat(json).contains("\"playerCards\":[\"" + code + "\"]");
+        assertThat(CardCodes.of(card)).isEqualTo(code);
+    }
+
+    private static GameDTO roundTrip(GameDTO game, MediaType mediaType) {
+        DataBuffer buffer = encoder(mediaType).encodeValue(game, DefaultDataBufferFactory.sharedInstance,
+                GAME, mediaType, null);
+        return decoder(mediaType).decode(buffer, GAME, mediaType, null);
+    }
+
+    // The first codec taking games in the media type, as WebFlux picks it
+    @SuppressWarnings("unchecked")
+    private static Encoder<GameDTO> encoder(MediaType mediaType) {
+        Encoder<?> encoder = configurer().getWriters().stream()
+                .filter(writer -> writer.canWrite(GAME, mediaType))
+                .map(writer -> ((EncoderHttpMessageWriter<?>) writer).getEncoder())
+                .findFirst()
+                .orElseThrow();
+        assertThat(encoder.getClass().getEnclosingClass()).isEqualTo(GameCodecs.class);
+        return (Encoder<GameDTO>) encoder;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Decoder<GameDTO> decoder(MediaType mediaType) {
+        Decoder<?> decoder = configurer().getReaders().stream()
+                .filter(reader -> reader.canRead(GAME, mediaType))
+                .map(reader -> ((DecoderHttpMessageReader<?>) reader).getDecoder())
+                .findFirst()
+                .orElseThrow();
+        assertThat(decoder.getClass().getEnclosingClass()).isEqualTo(GameCodecs.class);
+        return (Decoder<GameDTO>) decoder;
+    }
+
+    private static ServerCodecConfigurer configurer() {
+        ServerCodecConfigurer configurer = ServerCodecConfigurer.create();
+        GameCodecs.register(configurer.customCodecs());
+        return configurer;
+    }
+}
@@ -0,0 +1,362 @@
+package blackjack.store;
+
+import blackjack.BlackjackApplication;
+import blackjack.config.StorageProperties;
+import blackjack.model.ArchivedGame;
+import blackjack.model.Game;
+import blackjack.model.GameJournalEntry;
+import blackjack.model.Player;
+import blackjack.model.Table;
+import blackjack.model.enums.GameStatus;
+import blackjack.model.enums.Participant;
+import blackjack.store.memory.MemoryStorage;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static blackjack.store.StoreFixtures.activeGame;
+import static blackjack.store.StoreFixtures.activeTable;
+import static blackjack.store.StoreFixtures.archivedGame;
+import static blackjack.store.StoreFixtures.finishedGame;
+import static blackjack.store.StoreFixtures.journalEntry;
+import static blackjack.store.StoreFixtures.next;
+import static blackjack.store.StoreFixtures.unique;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The behaviour the services rely on from every storage engine, run against each of them.
+ * The repository engine needs MongoDB and MySQL, found through the same MONGO_DB_URI,
+ * MYSQL_R2DBC_URL and MYSQL_JDBC_URL variables as the application, and is skipped when
+ * they are not set. Every test writes records of its own, so a shared database is fine.
+ */
+class StoreContractTest {
+
+    private static final Map<String, Engine> ENGINES = new ConcurrentHashMap<>();
+
+    @TempDir
+    static Path directory;
+
+    private record Engine(PlayerStore players, GameStore games, TableStore tables, GameJournalStore journals,
+                          GameHistoryStore history, AutoCloseable resources) {
+    }
+
+    private static Engine engine(String name) {
+        return ENGINES.computeIfAbsent(name, engine -> switch (engine) {
+            case "memory" -> memory();
+            case "repository" -> repository();
+            default -> throw new IllegalArgumentException("Unknown engine " + engine);
+        });
+    }
+
+    private static Engine memory() {
+        StorageProperties.Memory properties = new StorageProperties.Memory();
+        properties.setDirectory(directory.resolve("memory"));
+        try {
+            MemoryStorage storage = new MemoryStorage(properties);
+            return new Engine(storage.players(), storage.games(), storage.tables(), storage.gameJournals(),
+                    storage.history(), storage);
+        } catch (IOException e) {
+            throw new IllegalStateException("Memory storage failed to open", e);
+        }
+    }
+
+    private static Engine repository() {
+        assumeTrue(System.getenv("MONGO_DB_URI") != null && System.getenv("MYSQL_R2DBC_URL") != null
+                && System.getenv("MYSQL_JDBC_URL") != null, "MongoDB and MySQL are not configured");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BlackjackApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--blackjack.storage.engine=repository");
+        return new Engine(context.getBean(PlayerStore.class), context.getBean(GameStore.class),
+                context.getBean(TableStore.class), context.getBean(GameJournalStore.class),
+                context.getBean(GameHistoryStore.class), context);
+    }
+
+    @AfterAll
+    static void close() throws Exception {
+        for (Engine engine : ENGINES.values()) {
+            engine.resources().close();
+        }
+        ENGINES.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "repository"})
+    void playerIsFoundByTheIdAssignedOnSaveAndByName(String name) {
+        PlayerStore players = engine(name).players();
+        Player saved = players.save(Player.builder().name(unique("saved")).totalPoints(3).build()).block();
+
+        assertThat(saved.getId()).isNotNull();
+        StepVerifier.create(players.findById(saved.getId()))
+                .assertNext(player -> assertThat(player.getName()).isEqualTo(saved.getName()))
+                .verifyComplete();
+        StepVerifier.create(players.findByName(saved.getName()))
+                .assertNext(player -> assertThat(player.getId()).isEqualTo(saved.getId()))
+                .verifyComplete();
+        StepVerifier.create(players.findById(Integer.MAX_VALUE)).verifyComplete();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "repository"})
+    void playerNamesAreUnique(String name) {
+        PlayerStore players = engine(name).players();
+        String taken = unique("taken");
+        players.save(Player.builder().name(taken).build()).block();
+
+        StepVerifier.create(players.save(Player.builder().name(taken).build()))
+                .verifyError(DuplicateKeyException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "repository"})
+    void renameKeepsThePointsInTheStore(String name) {
+        PlayerStore players = engine(name).players();
+        Player player = players.save(Player.builder().name(unique("before")).build()).block();
+        players.addPointsBatch(Map.of(player.getId(), 5)).block();
+        String renamed = unique("after");
+
+        StepVerifier.create(players.rename(player.getId(), renamed))
+                .assertNext(after -> {
+                    assertThat(after.getName()).isEqualTo(renamed);
+                    assertThat(after.getTotalPoints()).isEqualTo(5);
+                })
+                .verifyComplete();
+        StepVerifier.create(players.findByName(player.getName())).verifyComplete();
+        StepVerifier.create(players.rename(Integer.MAX_VALUE, unique("missing"))).verifyComplete();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "repository"})
+    void renameToATakenNameFails(String name) {
+        PlayerStore players = engine(name).players();
+        Player first = players.save(Player.builder().name(unique("first")).build()).block();
+        Player second = players.save(Player.builder().name(unique("second")).build()).block();
+
+        StepVerifier.create(players.rename(second.getId(), first.getName()))
+                .verifyError(DuplicateKeyException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "repository"})
+    void pointsBatchesAddUp(String name) {
+        PlayerStore players = engine(name).players();
+        Player first = players.save(Player.builder().name(unique("first")).totalPoints(1).build()).block();
+        Player second = players.save(Player.builder().name(unique("second")).build()).block();
+
+        players.addPointsBatch(Map.of(first.getId(), 2, second.getId(), -1)).block();
+        players.addPointsBatch(Map.of(first.getId(), 4)).block();
+
+        assertThat(players.findById(first.getId()).block().getTotalPoints()).isEqualTo(7);
+        assertThat(players.findById(second.getId()).block().getTotalPoints()).isEqualTo(-1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "repository"})
+    void gameIsReadBackAsInserted(String name) {
+        GameStore games = engine(name).games();
+        Game game = activeGame();
+
+        games.insert(game).block();
+
+        StepVerifier.create(games.findById(game.getId()))
+                .assertNext(stored -> assertThat(stored).isEqualTo(game))
+                .verifyComplete();
+        StepVerifier.create(games.insert(game)).verifyError(DuplicateKeyException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "repository"})
+    void gameIsOnlyReplacedWhileActiveAtTheExpectedVersion(String name) {
+        GameStore games = engine(name).games();
+        Game game = games.insert(activeGame()).block();
+        Game moved = next(game);
+
+        StepVerifier.create(games.updateIfVersion(moved, 1)).verifyComplete();
+        StepVerifier.create(games.updateIfVersion(moved, 0))
+                .assertNext(stored -> assertThat(stored.getVersion()).isEqualTo(1))
+                .verifyComplete();
+
+        Game finished = next(moved);
+        finished.setGameStatus(GameStatus.FINISHED);
+        finished.setWinner(Participant.PLAYER);
+        games.updateIfVersion(finished, 1).block();
+        StepVerifier.create(games.updateIfVersion(next(finished), 2)).verifyComplete();
+        assertThat(games.findById(game.getId()).block().getGameStatus()).isEqualTo(GameStatus.FINISHED);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "repository"})
+    void settledGamesAreArchivedOnce(String name) {
+        GameStore games = engine(name).games();
+        Game unsettled = games.insert(finishedGame()).block();
+        Game settled = games.insert(finishedGame()).block();
+        Game active = games.insert(activeGame()).block();
+
+        games.markSettled(List.of(settled.getId(), active.getId())).block();
+
+        assertThat(games.findByGameStatusAndSettledFalse(GameStatus.FINISHED).map(Game::getId).collectList().block())
+                .contains(unsettled.getId())
+                .doesNotContain(settled.getId());
+        assertThat(games.findSettled(Integer.MAX_VALUE).map(Game::getId).collectList().block())
+                .contains(settled.getId())
+                .doesNotContain(unsettled.getId(), active.getId());
+
+        StepVerifier.create(games.deleteSettled(Set.of(settled.getId(), unsettled.getId(), active.getId())))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(games.findById(settled.getId())).verifyComplete();
+        StepVerifier.create(games.deleteSettled(Set.of(settled.getId()))).expectNext(0L).verifyComplete();
+        assertThat(games.findById(unsettled.getId()).block()).isNotNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "repository"})
+    void deletedGameIsGone(String name) {
+        GameStore games = engine(name).games();
+        Game game = games.insert(activeGame()).block();
+
+        games.deleteById(game.getId()).block();
+
+        StepVerifier.create(games.findById(game.getId())).verifyComplete();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "repository"})
+    void tableIsOnlyReplacedAtTheExpectedVersion(String name) {
+        TableStore tables = engine(name).tables();
+        Table table = activeTable();
+
+        tables.insert(table).block();
+        StepVerifier.create(tables.findById(table.getId()))
+                .assertNext(stored -> assertThat(stored).isEqualTo(table))
+                .verifyComplete();
+        StepVerifier.create(tables.insert(table)).verifyError(DuplicateKeyException.class);
+
+        Table finished = table.toBuilder().tableStatus(GameStatus.FINISHED).version(1).build();
+        StepVerifier.create(tables.updateIfVersion(finished, 1)).verifyComplete();
+        StepVerifier.create(tables.updateIfVersion(finished, 0))
+                .assertNext(stored -> assertThat(stored.getTableStatus()).isEqualTo(GameStatus.FINISHED))
+                .verifyComplete();
+
+        assertThat(tables.findByTableStatusAndSettledFalse(GameStatus.FINISHED).map(Table::getId).collectList().block())
+                .contains(table.getId());
+        tables.updateIfVersion(finished.toBuilder().settled(true).version(2).build(), 1).block();
+        assertThat(tables.findByTableStatusAndSettledFalse(GameStatus.FINISHED).map(Table::getId).collectList().block())
+                .doesNotContain(table.getId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "repository"})
+    void journalRejectsEachEntryForAVersionItsGameHas(String name) {
+        GameJournalStore journals = engine(name).journals();
+        Game game = activeGame();
+        Game other = activeGame();
+
+        StepVerifier.create(journals.appendAll(List.of(journalEntry(game, 0), journalEntry(game, 1))))
+                .expectNext(Set.of())
+                .verifyComplete();
+        // Two moves from version 1, one repeated in the same write, and a move of another game
+        StepVerifier.create(journals.appendAll(List.of(journalEntry(game, 1), journalEntry(game, 2),
+                        journalEntry(game, 2), journalEntry(other, 0))))
+                .expectNext(Set.of(0, 2))
+                .verifyComplete();
+
+        assertThat(versions(journals.findByGameId(game.getId(), -1))).containsExactly(0L, 1L, 2L);
+        assertThat(versions(journals.findByGameId(other.getId(), -1))).containsExactly(0L);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "repository"})
+    void journalIsReadInVersionOrderAfterAVersion(String name) {
+        GameJournalStore journals = engine(name).journals();
+        Game game = activeGame();
+        List<GameJournalEntry> entries = List.of(journalEntry(game, 0), journalEntry(game, 1), journalEntry(game, 2));
+
+        journals.appendAll(List.of(entries.get(2), entries.get(0))).block();
+        journals.appendAll(List.of(entries.get(1))).block();
+
+        StepVerifier.create(journals.findByGameId(game.getId(), -1))
+                .assertNext(entry -> assertThat(entry.getEvents()).isEqualTo(entries.get(0).getEvents()))
+                .assertNext(entry -> assertThat(entry.getEvents()).isEqualTo(entries.get(1).getEvents()))
+                .assertNext(entry -> assertThat(entry.getEvents()).isEqualTo(entries.get(2).getEvents()))
+                .verifyComplete();
+        assertThat(versions(journals.findByGameId(game.getId(), 0))).containsExactly(1L, 2L);
+        assertThat(versions(journals.findByGameId(game.getId(), 2))).isEmpty();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "repository"})
+    void deletedJournalIsGoneAndItsVersionsFree(String name) {
+        GameJournalStore journals = engine(name).journals();
+        Game game = activeGame();
+        Game other = activeGame();
+        journals.appendAll(List.of(journalEntry(game, 0), journalEntry(game, 1), journalEntry(other, 0))).block();
+
+        journals.deleteByGameId(game.getId()).block();
+
+        StepVerifier.create(journals.findByGameId(game.getId(), -1)).verifyComplete();
+        assertThat(versions(journals.findByGameId(other.getId(), -1))).containsExactly(0L);
+        StepVerifier.create(journals.appendAll(List.of(journalEntry(game, 0))))
+                .expectNext(Set.of())
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "repository"})
+    void historyIsPagedNewestFirstAfterTheLastGameOfThePage(String name) {
+        GameHistoryStore history = engine(name).history();
+        int playerId = ThreadLocalRandom.current().nextInt(1_000_000, Integer.MAX_VALUE);
+        // Ids are ObjectIds, so the games are in the order they were created
+        List<ArchivedGame> games = Stream.generate(() -> archivedGame(playerId)).limit(5).toList();
+        history.upsertAll(games).block();
+        history.upsertAll(List.of(archivedGame(playerId + 1))).block();
+
+        List<ArchivedGame> first = history.findHistory(playerId, null, 2).collectList().block();
+        List<ArchivedGame> second = history.findHistory(playerId, first.get(1).getId(), 2).collectList().block();
+        List<ArchivedGame> last = history.findHistory(playerId, second.get(1).getId(), 2).collectList().block();
+
+        assertThat(first).extracting(ArchivedGame::getId).containsExactly(games.get(4).getId(), games.get(3).getId());
+        assertThat(second).extracting(ArchivedGame::getId).containsExactly(games.get(2).getId(), games.get(1).getId());
+        assertThat(last).containsExactly(games.get(0));
+        StepVerifier.create(history.findHistory(playerId, games.get(0).getId(), 2)).verifyComplete();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "repository"})
+    void historyUpsertReplacesAGameArchivedBefore(String name) {
+        GameHistoryStore history = engine(name).history();
+        int playerId = ThreadLocalRandom.current().nextInt(1_000_000, Integer.MAX_VALUE);
+        ArchivedGame game = archivedGame(playerId);
+        history.upsertAll(List.of(game)).block();
+
+        ArchivedGame again = archivedGame(playerId);
+        again.setId(game.getId());
+        again.setWinner(Participant.PLAYER);
+        again.setPoints(2);
+        history.upsertAll(List.of(again)).block();
+
+        StepVerifier.create(history.findHistory(playerId, null, 10))
+                .expectNext(again)
+                .verifyComplete();
+    }
+
+    private static List<Long> versions(Flux<GameJournalEntry> entries) {
+        return entries.map(GameJournalEntry::getVersion).collectList().block();
+    }
+}
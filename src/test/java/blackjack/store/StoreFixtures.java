@@ -0,0 +1,121 @@
+package blackjack.store;
+
+import blackjack.model.ArchivedGame;
+import blackjack.model.CardPile;
+import blackjack.model.Game;
+import blackjack.model.GameEvent;
+import blackjack.model.GameJournalEntry;
+import blackjack.model.Seat;
+import blackjack.model.Shoe;
+import blackjack.model.Table;
+import blackjack.model.enums.GameStatus;
+import blackjack.model.enums.Participant;
+import blackjack.model.enums.SeatStatus;
+import blackjack.rules.BlackjackRules;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records for the store tests, each with ids of its own. Times are whole milliseconds,
+ * which every store keeps.
+ */
+public final class StoreFixtures {
+
+    private StoreFixtures() {
+    }
+
+    public static String unique(String prefix) {
+        return prefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    public static Game activeGame() {
+        Shoe deck = new Shoe(42, 1, 42, 0);
+        return Game.builder()
+                .id(ObjectId.get().toHexString())
+                .playerId(1)
+                .playerCards(CardPile.of(deck.draw(), deck.draw()))
+                .dealerCards(CardPile.of(deck.draw()))
+                .hiddenCard(deck.draw())
+                .deck(deck)
+                .gameStatus(GameStatus.ACTIVE)
+                .winner(Participant.NONE)
+                .createdAt(now())
+                .build();
+    }
+
+    public static Game finishedGame() {
+        Game game = activeGame();
+        game.setGameStatus(GameStatus.FINISHED);
+        game.setWinner(Participant.DEALER);
+        game.setPoints(-1);
+        game.setFinishedAt(game.getCreatedAt());
+        return game;
+    }
+
+    // The game after a HIT, with the next version
+    public static Game next(Game game) {
+        Game next = game.toBuilder()
+                .playerCards(game.getPlayerCards().copy())
+                .deck(game.getDeck().copy())
+                .version(game.getVersion() + 1)
+                .build();
+        next.getPlayerCards().add(next.getDeck().draw());
+        return next;
+    }
+
+    public static Table activeTable() {
+        Shoe deck = new Shoe(7, 2, 84, 0);
+        return Table.builder()
+                .id(ObjectId.get().toHexString())
+                .seats(List.of(Seat.builder()
+                        .playerId(1)
+                        .cards(CardPile.of(deck.draw(), deck.draw()))
+                        .status(SeatStatus.PLAYING)
+                        .winner(Participant.NONE)
+                        .build()))
+                .dealerCards(CardPile.of(deck.draw()))
+                .hiddenCard(deck.draw())
+                .deck(deck)
+                .tableStatus(GameStatus.ACTIVE)
+                .round(1)
+                .createdAt(now())
+                .build();
+    }
+
+    // The deal of the game at version 0, a HIT of the next card of its shoe at any later one
+    public static GameJournalEntry journalEntry(Game game, long version) {
+        GameEvent event = version == 0
+                ? GameEvent.dealt(game)
+                : GameEvent.hit(game.getDeck().toList().get((int) version - 1));
+        return GameJournalEntry.builder()
+                .gameId(game.getId())
+                .version(version)
+                .at(now())
+                .events(List.of(event))
+                .build();
+    }
+
+    public static ArchivedGame archivedGame(int playerId) {
+        Game game = finishedGame();
+        return ArchivedGame.builder()
+                .id(game.getId())
+                .playerId(playerId)
+                .playerCards(game.getPlayerCards())
+                .dealerCards(game.getDealerCards())
+                .playerScore(BlackjackRules.handScore(game.getPlayerCards()))
+                .dealerScore(BlackjackRules.handScore(game.getDealerCards()))
+                .winner(game.getWinner())
+                .points(game.getPoints())
+                .createdAt(game.getCreatedAt())
+                .finishedAt(game.getFinishedAt())
+                .build();
+    }
+}
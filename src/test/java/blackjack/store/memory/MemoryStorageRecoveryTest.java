@@ -0,0 +1,189 @@
+package blackjack.store.memory;
+
+import blackjack.config.StorageProperties;
+import blackjack.model.ArchivedGame;
+import blackjack.model.Game;
+import blackjack.model.GameJournalEntry;
+import blackjack.model.Player;
+import blackjack.model.Table;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static blackjack.store.StoreFixtures.activeGame;
+import static blackjack.store.StoreFixtures.activeTable;
+import static blackjack.store.StoreFixtures.archivedGame;
+import static blackjack.store.StoreFixtures.journalEntry;
+import static blackjack.store.StoreFixtures.next;
+import static blackjack.store.StoreFixtures.unique;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recovery of the memory engine from its files: after a clean close from the last snapshot
+ * alone, and after a crash from the snapshot with the journal written after it replayed on
+ * top. A crash is the files copied while the storage is still open, as the page cache holds
+ * them when the process dies.
+ */
+class MemoryStorageRecoveryTest {
+
+    @TempDir
+    Path directory;
+
+    // What one round of writes stored, to look it up again after recovery
+    private record Written(Player player, Game game, Game deleted, Table table, List<GameJournalEntry> journal,
+                           ArchivedGame archived) {
+    }
+
+    @Test
+    void closedStorageIsRecoveredFromItsSnapshot() throws IOException {
+        Written written;
+        try (MemoryStorage storage = open(directory)) {
+            written = write(storage);
+        }
+
+        try (MemoryStorage recovered = open(directory)) {
+            assertRecovered(recovered, written);
+        }
+    }
+
+    @Test
+    void journalWrittenAfterTheSnapshotIsReplayedOnTopOfIt() throws IOException {
+        Written beforeSnapshot;
+        try (MemoryStorage storage = open(directory)) {
+            beforeSnapshot = write(storage);
+        }
+        Path crashed = directory.resolve("crashed");
+        Written afterSnapshot;
+        try (MemoryStorage storage = open(directory)) {
+            afterSnapshot = write(storage);
+            storage.players().addPointsBatch(Map.of(beforeSnapshot.player().getId(), 4)).block();
+            copy(directory, crashed);
+        }
+        assertThat(records(latestJournal(crashed))).isNotEmpty();
+
+        try (MemoryStorage recovered = open(crashed)) {
+            beforeSnapshot.player().setTotalPoints(beforeSnapshot.player().getTotalPoints() + 4);
+            assertRecovered(recovered, beforeSnapshot);
+            assertRecovered(recovered, afterSnapshot);
+        }
+    }
+
+    @Test
+    void tornRecordAtTheEndOfTheJournalIsIgnored() throws IOException {
+        Path crashed = directory.resolve("crashed");
+        Written written;
+        Player late;
+        try (MemoryStorage storage = open(directory)) {
+            written = write(storage);
+            late = storage.players().save(Player.builder().name(unique("late")).build()).block();
+            copy(directory, crashed);
+        }
+        // The crash cut the last record short: its checksum no longer matches its payload
+        Path journal = latestJournal(crashed);
+        List<long[]> records = records(journal);
+        long[] last = records.get(records.size() - 1);
+        try (RandomAccessFile file = new RandomAccessFile(journal.toFile(), "rw")) {
+            file.seek(last[1] - 1);
+            byte end = file.readByte();
+            file.seek(last[1] - 1);
+            file.writeByte(end ^ 0xFF);
+        }
+
+        try (MemoryStorage recovered = open(crashed)) {
+            assertRecovered(recovered, written);
+            assertThat(recovered.players().findById(late.getId()).block()).isNull();
+            // The torn record is dropped from the files as well, new writes are recovered
+            recovered.players().save(Player.builder().name(late.getName()).build()).block();
+        }
+        try (MemoryStorage reopened = open(crashed)) {
+            assertThat(reopened.players().findByName(late.getName()).block()).isNotNull();
+            assertRecovered(reopened, written);
+        }
+    }
+
+    private static MemoryStorage open(Path directory) throws IOException {
+        StorageProperties.Memory properties = new StorageProperties.Memory();
+        properties.setDirectory(directory);
+        properties.setMappedRegionSize(DataSize.ofKilobytes(64));
+        return new MemoryStorage(properties);
+    }
+
+    private static Written write(MemoryStorage storage) {
+        Player player = storage.players().save(Player.builder().name(unique("player")).totalPoints(3).build()).block();
+
+        Game game = activeGame();
+        storage.games().insert(game).block();
+        Game moved = next(game);
+        storage.games().updateIfVersion(moved, 0).block();
+        Game deleted = activeGame();
+        storage.games().insert(deleted).block();
+        storage.games().deleteById(deleted.getId()).block();
+
+        Table table = activeTable();
+        storage.tables().insert(table).block();
+
+        List<GameJournalEntry> journal = List.of(journalEntry(game, 0), journalEntry(game, 1));
+        storage.gameJournals().appendAll(journal).block();
+
+        ArchivedGame archived = archivedGame(player.getId());
+        storage.history().upsertAll(List.of(archived)).block();
+        return new Written(player, moved, deleted, table, journal, archived);
+    }
+
+    private static void assertRecovered(MemoryStorage storage, Written written) {
+        assertThat(storage.players().findById(written.player().getId()).block()).isEqualTo(written.player());
+        assertThat(storage.players().findByName(written.player().getName()).block()).isEqualTo(written.player());
+        assertThat(storage.games().findById(written.game().getId()).block()).isEqualTo(written.game());
+        assertThat(storage.games().findById(written.deleted().getId()).block()).isNull();
+        assertThat(storage.tables().findById(written.table().getId()).block()).isEqualTo(written.table());
+        assertThat(storage.gameJournals().findByGameId(written.game().getId(), -1).collectList().block())
+                .isEqualTo(written.journal());
+        assertThat(storage.history().findHistory(written.player().getId(), null, 10).collectList().block())
+                .containsExactly(written.archived());
+    }
+
+    private static void copy(Path from, Path to) throws IOException {
+        Files.createDirectories(to);
+        try (Stream<Path> files = Files.list(from)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.copy(file, to.resolve(file.getFileName()));
+            }
+        }
+    }
+
+    private static Path latestJournal(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("journal-"))
+                    .max(Path::compareTo)
+                    .orElseThrow();
+        }
+    }
+
+    // Start and end offsets of the records in a file: length, checksum and payload each
+    private static List<long[]> records(Path file) throws IOException {
+        try (RandomAccessFile in = new RandomAccessFile(file.toFile(), "r")) {
+            List<long[]> records = new ArrayList<>();
+            long position = 0;
+            while (position + Integer.BYTES * 2 <= in.length()) {
+                in.seek(position);
+                int length = in.readInt();
+                if (length <= 0) {
+                    break;
+                }
+                long end = position + Integer.BYTES * 2 + length;
+                records.add(new long[]{position, end});
+                position = end;
+            }
+            return records;
+        }
+    }
+}